@@ -0,0 +1,53 @@
+package ru.practicum.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.stats_server.dto.EndpointHitDto;
+import ru.practicum.stats_server.dto.EndpointHitMapper;
+import ru.practicum.stats_server.model.EndpointHit;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Разбор и форматирование хита на приеме POST /hit: основная стоимость в DateTimeFormatter
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EndpointHitMapperBenchmark {
+    private EndpointHitDto dto;
+    private EndpointHit hit;
+
+    @Setup
+    public void setUp() {
+        dto = EndpointHitDto.builder()
+                .app("main_server")
+                .uri("/events/42")
+                .ip("192.168.0.1")
+                .timestamp("2024-06-01 12:00:00")
+                .userAgent("Mozilla/5.0")
+                .build();
+        hit = EndpointHitMapper.toEndpointHit(dto);
+    }
+
+    @Benchmark
+    public EndpointHit toEndpointHit() {
+        return EndpointHitMapper.toEndpointHit(dto);
+    }
+
+    @Benchmark
+    public EndpointHitDto toEndpointHitDto() {
+        return EndpointHitMapper.toEndpointHitDto(hit);
+    }
+}
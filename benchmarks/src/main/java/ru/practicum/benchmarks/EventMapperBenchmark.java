@@ -0,0 +1,54 @@
+package ru.practicum.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import ru.practicum.main_server.mapper.EventMapper;
+import ru.practicum.main_server.model.Event;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Преобразование страницы событий в DTO, как в публичной выдаче и в карточке события
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EventMapperBenchmark {
+    @Param({"10", "100"})
+    private int size;
+
+    private List<Event> events;
+
+    @Setup
+    public void setUp() {
+        events = Fixtures.events(size);
+    }
+
+    @Benchmark
+    public void toEventShortDto(Blackhole blackhole) {
+        for (Event event : events) {
+            blackhole.consume(EventMapper.toEventShortDto(event));
+        }
+    }
+
+    @Benchmark
+    public void toEventFullDto(Blackhole blackhole) {
+        for (Event event : events) {
+            blackhole.consume(EventMapper.toEventFullDto(event));
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package ru.practicum.benchmarks;
+
+import ru.practicum.main_server.model.Category;
+import ru.practicum.main_server.model.Event;
+import ru.practicum.main_server.model.Location;
+import ru.practicum.main_server.model.ParticipationRequest;
+import ru.practicum.main_server.model.State;
+import ru.practicum.main_server.model.Status;
+import ru.practicum.main_server.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Тестовые данные для бенчмарков: страница событий, похожая на реальную выдачу /events
+ */
+final class Fixtures {
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 6, 1, 12, 0);
+
+    private Fixtures() {
+    }
+
+    static List<Event> events(int count) {
+        List<Category> categories = new ArrayList<>();
+        for (long i = 1; i <= 10; i++) {
+            categories.add(new Category(i, "Категория " + i));
+        }
+        List<Event> events = new ArrayList<>(count);
+        for (long i = 1; i <= count; i++) {
+            User initiator = new User(i % 50 + 1, "Пользователь " + i % 50, "user" + i % 50 + "@mail.ru");
+            events.add(Event.builder()
+                    .id(i)
+                    .annotation("Аннотация события " + i + ", достаточно длинная, чтобы походить на настоящую")
+                    .description("Описание события " + i + ". Место, время, программа и условия участия.")
+                    .category(categories.get((int) (i % categories.size())))
+                    .initiator(initiator)
+                    .location(new Location(i, 55.75f, 37.61f))
+                    .createdOn(NOW.minusDays(i % 30))
+                    .publishedOn(NOW.minusDays(i % 30).plusHours(1))
+                    .eventDate(NOW.plusDays(i % 90).plusHours(i % 24))
+                    .paid(i % 2 == 0)
+                    .participantLimit(i % 5 == 0 ? 0L : 100L)
+                    .requestModeration(true)
+                    .state(i % 10 == 0 ? State.PENDING : State.PUBLISHED)
+                    .title("Событие " + i)
+                    .confirmedRequests(0L)
+                    .views(0)
+                    .build());
+        }
+        return events;
+    }
+
+    static List<ParticipationRequest> confirmedRequests(List<Event> events) {
+        List<ParticipationRequest> requests = new ArrayList<>();
+        long id = 1;
+        for (Event event : events) {
+            for (int i = 0; i < event.getId() % 7; i++) {
+                requests.add(new ParticipationRequest(id++, NOW, event, event.getInitiator(), Status.CONFIRMED));
+            }
+        }
+        return requests;
+    }
+}
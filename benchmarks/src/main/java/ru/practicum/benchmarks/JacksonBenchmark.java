@@ -0,0 +1,61 @@
+package ru.practicum.benchmarks;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import ru.practicum.main_server.mapper.EventMapper;
+import ru.practicum.main_server.model.dto.EventFullDto;
+import ru.practicum.main_server.model.dto.EventShortDto;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Сериализация ответов /events и /events/{id} в JSON с теми же настройками дат, что у Spring Boot
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JacksonBenchmark {
+    @Param({"10", "100"})
+    private int size;
+
+    private ObjectMapper mapper;
+    private List<EventShortDto> shortDtos;
+    private List<EventFullDto> fullDtos;
+
+    @Setup
+    public void setUp() {
+        mapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        shortDtos = Fixtures.events(size).stream().map(EventMapper::toEventShortDto).collect(Collectors.toList());
+        fullDtos = Fixtures.events(size).stream().map(EventMapper::toEventFullDto).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public byte[] writeShortDtos() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(shortDtos);
+    }
+
+    @Benchmark
+    public byte[] writeFullDtos() throws JsonProcessingException {
+        return mapper.writeValueAsBytes(fullDtos);
+    }
+}
@@ -0,0 +1,119 @@
+package ru.practicum.benchmarks;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.OutputStreamAppender;
+import ch.qos.logback.core.encoder.Encoder;
+import net.logstash.logback.encoder.LogstashEncoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+import ru.practicum.main_server.model.Event;
+
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Стоимость логирования на один запрос /events: прежняя запись всей страницы событий на INFO
+ * против строки запроса и отключенной debug-сводки, с обычным (pattern) и JSON-форматом.
+ * Вывод идет в поток-заглушку, поэтому измеряется только форматирование и кодирование в потоке запроса.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoggingBenchmark {
+    @Param({"pattern", "json"})
+    private String format;
+
+    private Logger logger;
+    private Appender<ILoggingEvent> appender;
+    private Map<Long, Event> page;
+
+    @Setup
+    public void setUp() {
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        Encoder<ILoggingEvent> encoder;
+        if ("json".equals(format)) {
+            LogstashEncoder json = new LogstashEncoder();
+            json.setContext(context);
+            encoder = json;
+        } else {
+            PatternLayoutEncoder pattern = new PatternLayoutEncoder();
+            pattern.setContext(context);
+            pattern.setPattern("%d{yyyy-MM-dd HH:mm:ss.SSS} %5p %t --- %-40.40logger{39} : %m%n");
+            encoder = pattern;
+        }
+        encoder.start();
+        OutputStreamAppender<ILoggingEvent> stream = new OutputStreamAppender<>();
+        stream.setContext(context);
+        stream.setEncoder(encoder);
+        stream.setOutputStream(OutputStream.nullOutputStream());
+        stream.start();
+        appender = stream;
+
+        logger = context.getLogger("ru.practicum.benchmarks.request");
+        logger.detachAndStopAllAppenders();
+        logger.setAdditive(false);
+        logger.setLevel(Level.INFO);
+        logger.addAppender(appender);
+
+        page = Fixtures.events(10).stream().collect(Collectors.toMap(Event::getId, Function.identity()));
+    }
+
+    @TearDown
+    public void tearDown() {
+        logger.detachAndStopAllAppenders();
+    }
+
+    /**
+     * Как было: контроллер, сервис и дамп страницы с вложенными сущностями на INFO
+     */
+    @Benchmark
+    public void entityDump() {
+        logger.info(":::GET /events получение списка событий по параметрам: text={}, categories={}, paid={}, "
+                + "rangeStart={}, rangeEnd={}, onlyAvailable={}, sort={}, from={}, size={}",
+                null, null, null, null, null, null, "EVENT_DATE", 0, 10);
+        logger.info("////eventsWithViews{}", List.copyOf(page.values()));
+        logger.info("////eventsWithRequests{}", page);
+    }
+
+    /**
+     * Как стало: строка запроса на DEBUG и сводка на DEBUG, при уровне INFO не форматируются
+     */
+    @Benchmark
+    public void debugSummary() {
+        logger.debug(":::GET /events получение списка событий по параметрам: text={}, categories={}, paid={}, "
+                + "rangeStart={}, rangeEnd={}, onlyAvailable={}, sort={}, from={}, size={}",
+                null, null, null, null, null, null, "EVENT_DATE", 0, 10);
+        logger.debug("PublicEventService: подтвержденные заявки есть у {} из {} событий", 3, page.size());
+    }
+
+    /**
+     * Одна параметризованная строка на INFO - так остаются логироваться изменяющие запросы
+     */
+    @Benchmark
+    public void requestLine() {
+        logger.info("AdminEventService: публикация события с id={}", 42L);
+    }
+}
@@ -0,0 +1,79 @@
+package ru.practicum.benchmarks;
+
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageImpl;
+import ru.practicum.main_server.client.StatisticClient;
+import ru.practicum.main_server.model.Event;
+import ru.practicum.main_server.model.Status;
+import ru.practicum.main_server.model.dto.EventShortDto;
+import ru.practicum.main_server.repository.CommentRepository;
+import ru.practicum.main_server.repository.EventRepository;
+import ru.practicum.main_server.repository.ParticipationRequestRepository;
+import ru.practicum.main_server.service.public_service.PublicEventService;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+
+/**
+ * Публичный поиск событий без базы и сети: репозитории и клиент статистики заменены заглушками,
+ * измеряется сборка выдачи - подсчет подтвержденных заявок, сортировка и маппинг в DTO.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PublicEventServiceBenchmark {
+    @Param({"EVENT_DATE", "VIEWS"})
+    private String sort;
+
+    @Param({"10", "100"})
+    private int size;
+
+    private PublicEventService service;
+
+    @Setup
+    public void setUp() {
+        List<Event> events = Fixtures.events(size);
+        EventRepository eventRepository = Mockito.mock(EventRepository.class);
+        ParticipationRequestRepository requestRepository = Mockito.mock(ParticipationRequestRepository.class);
+        StatisticClient statClient = Mockito.mock(StatisticClient.class);
+
+        Mockito.when(eventRepository.searchEvents(any(), any(), any(), any(), any(), any()))
+                .thenAnswer(invocation -> new PageImpl<>(events));
+        Mockito.when(statClient.getEventsWithViews(anyList()))
+                .thenAnswer(invocation -> {
+                    List<Event> page = invocation.getArgument(0);
+                    for (Event event : page) {
+                        event.setViews((int) (event.getId() * 37 % 1000));
+                    }
+                    return page;
+                });
+        Mockito.when(requestRepository.findByStatusAndEvent(eq(Status.CONFIRMED), anyList()))
+                .thenReturn(Fixtures.confirmedRequests(events));
+
+        service = new PublicEventService(eventRepository, statClient, requestRepository,
+                Mockito.mock(CommentRepository.class));
+    }
+
+    @Benchmark
+    public List<EventShortDto> readEvents() {
+        return service.readEvents(null, null, null, null, null, false, sort, 0, size, 0);
+    }
+}
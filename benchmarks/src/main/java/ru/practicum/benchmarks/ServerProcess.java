@@ -0,0 +1,127 @@
+package ru.practicum.benchmarks;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сервер, запущенный отдельным процессом java: ожидание готовности по /actuator/health, остановка и RSS процесса.
+ * Вывод сервера пишется во временный файл, путь к нему есть в сообщении об ошибке запуска.
+ */
+final class ServerProcess {
+    private static final Duration START_TIMEOUT = Duration.ofSeconds(120);
+    private static final long POLL_INTERVAL_MS = 20;
+
+    private final Process process;
+    private final Path log;
+    private final int port;
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+
+    private ServerProcess(Process process, Path log, int port) {
+        this.process = process;
+        this.log = log;
+        this.port = port;
+    }
+
+    /**
+     * @param name    префикс имени файла с выводом сервера
+     * @param command аргументы java без порта, порт выбирается свободный и передается последним аргументом
+     */
+    static ServerProcess start(String name, List<String> command) throws IOException {
+        int port = freePort();
+        Path log = Files.createTempFile(name, ".log");
+        List<String> fullCommand = new ArrayList<>();
+        fullCommand.add(java());
+        fullCommand.addAll(command);
+        fullCommand.add("--server.port=" + port);
+        Process process = new ProcessBuilder(fullCommand)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        return new ServerProcess(process, log, port);
+    }
+
+    /**
+     * Запускает java и ждет завершения, ненулевой код выхода считается ошибкой
+     */
+    static void run(String name, List<String> command) throws IOException, InterruptedException {
+        Path log = Files.createTempFile(name, ".log");
+        List<String> fullCommand = new ArrayList<>();
+        fullCommand.add(java());
+        fullCommand.addAll(command);
+        Process process = new ProcessBuilder(fullCommand)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+        int exitCode = process.waitFor();
+        if (exitCode != 0) {
+            throw new IllegalStateException(name + " завершился с кодом " + exitCode + ", лог: " + log);
+        }
+    }
+
+    URI uri(String path) {
+        return URI.create("http://localhost:" + port + path);
+    }
+
+    void awaitHealthy() throws InterruptedException {
+        long deadline = System.nanoTime() + START_TIMEOUT.toNanos();
+        HttpRequest request = HttpRequest.newBuilder(uri("/actuator/health")).GET().build();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("сервер завершился с кодом " + process.exitValue() + ", лог: " + log);
+            }
+            try {
+                if (client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return;
+                }
+            } catch (IOException e) {
+                // сервер еще не слушает порт
+            }
+            Thread.sleep(POLL_INTERVAL_MS);
+        }
+        process.destroyForcibly();
+        throw new IllegalStateException("сервер не запустился за " + START_TIMEOUT + ", лог: " + log);
+    }
+
+    /**
+     * Резидентная память процесса из /proc, -1 если /proc недоступен (не Linux)
+     */
+    long rssKb() throws IOException {
+        Path status = Path.of("/proc", String.valueOf(process.pid()), "status");
+        if (!Files.exists(status)) {
+            return -1;
+        }
+        for (String line : Files.readAllLines(status)) {
+            if (line.startsWith("VmRSS:")) {
+                return Long.parseLong(line.replaceAll("\\D", ""));
+            }
+        }
+        return -1;
+    }
+
+    void stop() throws InterruptedException {
+        process.destroy();
+        if (!process.waitFor(30, TimeUnit.SECONDS)) {
+            process.destroyForcibly();
+        }
+    }
+
+    static String java() {
+        return Path.of(System.getProperty("java.home"), "bin", "java").toString();
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package ru.practicum.benchmarks;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Время от запуска java до ответа /actuator/health и RSS процесса в этот момент (счетчик rssMb). Итог счетчика
+ * JMH суммирует по итерациям, RSS одного запуска смотреть в строках итераций или в медиане scorePercentiles в JSON.
+ * Режимы: jar - java -jar, как раньше в Dockerfile; cds - раскладка и архив классов CDS, как в текущем Dockerfile;
+ * cds-fast-start - то же с профилем fast-start. Архив CDS строится один раз на режим обучающим запуском.
+ * Серверы запускаются с профилем test на H2 из stats_server/target и main_server/target, поэтому перед запуском
+ * нужен mvn install.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(1)
+public class StartupBenchmark {
+    @Param({"MAIN_SERVER", "STATS_SERVER"})
+    private Service service;
+
+    @Param({"jar", "cds", "cds-fast-start"})
+    private String mode;
+
+    private List<String> command;
+    private ServerProcess server;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, InterruptedException {
+        String jar = System.getProperty(service.jarProperty, service.defaultJar);
+        if ("jar".equals(mode)) {
+            command = List.of("-jar", jar, "--spring.profiles.active=test");
+            return;
+        }
+        Path dir = Files.createTempDirectory("cds-" + service);
+        String classpath = explode(jar, dir);
+        Path archive = dir.resolve("app.jsa");
+        ServerProcess.run("cds-training-" + service, List.of("-XX:ArchiveClassesAtExit=" + archive,
+                "-cp", classpath, service.mainClass,
+                "--spring.profiles.active=test",
+                "--server.port=0",
+                "--" + service.propertyPrefix + ".startup.exit-after-start=true"));
+        command = List.of("-XX:SharedArchiveFile=" + archive, "-cp", classpath, service.mainClass,
+                "--spring.profiles.active=test" + ("cds-fast-start".equals(mode) ? ",fast-start" : ""));
+    }
+
+    @Benchmark
+    public void startUntilHealthy(Footprint footprint) throws IOException, InterruptedException {
+        server = ServerProcess.start("startup-" + service + "-" + mode, command);
+        server.awaitHealthy();
+        footprint.rssMb = server.rssKb() / 1024.0;
+    }
+
+    @TearDown(Level.Invocation)
+    public void stopServer() throws InterruptedException {
+        if (server != null) {
+            server.stop();
+            server = null;
+        }
+    }
+
+    /**
+     * Раскладывает fat jar на jar классов приложения и jar зависимостей, как Dockerfile
+     *
+     * @return classpath из этих jar
+     */
+    private static String explode(String jar, Path dir) throws IOException, InterruptedException {
+        Path extracted = dir.resolve("extracted");
+        ServerProcess.run("layertools", List.of("-Djarmode=layertools", "-jar", jar,
+                "extract", "--destination", extracted.toString()));
+        Path lib = Files.createDirectories(dir.resolve("lib"));
+        List<Path> libs = new ArrayList<>();
+        try (Stream<Path> layers = Files.list(extracted)) {
+            for (Path layerLib : layers.map(layer -> layer.resolve("BOOT-INF/lib")).collect(Collectors.toList())) {
+                if (!Files.isDirectory(layerLib)) {
+                    continue;
+                }
+                try (Stream<Path> jars = Files.list(layerLib)) {
+                    for (Path dependency : jars.collect(Collectors.toList())) {
+                        libs.add(Files.copy(dependency, lib.resolve(dependency.getFileName())));
+                    }
+                }
+            }
+        }
+        Path appJar = dir.resolve("app.jar");
+        Process jarTool = new ProcessBuilder(Path.of(System.getProperty("java.home"), "bin", "jar").toString(),
+                "cf", appJar.toString(), "-C", extracted.resolve("application/BOOT-INF/classes").toString(), ".")
+                .inheritIO()
+                .start();
+        if (jarTool.waitFor() != 0) {
+            throw new IllegalStateException("не удалось собрать " + appJar);
+        }
+        List<String> classpath = new ArrayList<>();
+        classpath.add(appJar.toString());
+        libs.stream().sorted().map(Path::toString).forEach(classpath::add);
+        return String.join(File.pathSeparator, classpath);
+    }
+
+    public enum Service {
+        MAIN_SERVER("main.jar", "main_server/target/main-server-0.0.1-SNAPSHOT-exec.jar",
+                "ru.practicum.main_server.MainServerApplication", "ewm"),
+        STATS_SERVER("stats.jar", "stats_server/target/stats-server-0.0.1-SNAPSHOT-exec.jar",
+                "ru.practicum.stats_server.StatServerApplication", "stats");
+
+        private final String jarProperty;
+        private final String defaultJar;
+        private final String mainClass;
+        private final String propertyPrefix;
+
+        Service(String jarProperty, String defaultJar, String mainClass, String propertyPrefix) {
+            this.jarProperty = jarProperty;
+            this.defaultJar = defaultJar;
+            this.mainClass = mainClass;
+            this.propertyPrefix = propertyPrefix;
+        }
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Footprint {
+        public double rssMb;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            rssMb = 0;
+        }
+    }
+}
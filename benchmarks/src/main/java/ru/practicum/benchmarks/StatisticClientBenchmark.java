@@ -0,0 +1,75 @@
+package ru.practicum.benchmarks;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import ru.practicum.main_server.client.StatisticClient;
+import ru.practicum.main_server.model.Event;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Подстановка просмотров в страницу событий. Сеть заменена заглушкой с готовым ответом, поэтому измеряется
+ * только работа клиента: построение запроса, сериализация списка адресов и разбор ответа.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StatisticClientBenchmark {
+    @Param({"10", "100"})
+    private int size;
+
+    private StatisticClient client;
+    private List<Event> events;
+
+    @Setup
+    public void setUp() {
+        events = Fixtures.events(size);
+        StringBuilder body = new StringBuilder("{");
+        for (Event event : events) {
+            if (body.length() > 1) {
+                body.append(',');
+            }
+            body.append("\"/events/").append(event.getId()).append("\":").append(event.getId() * 37 % 1000);
+        }
+        byte[] response = body.append('}').toString().getBytes(StandardCharsets.UTF_8);
+
+        RestTemplateBuilder builder = new RestTemplateBuilder()
+                .additionalCustomizers(rest -> rest.setRequestFactory((uri, method) -> stubRequest(method, uri, response)));
+        client = new StatisticClient("http://stats", builder, null, new SimpleMeterRegistry());
+    }
+
+    @Benchmark
+    public List<Event> getEventsWithViews() {
+        return client.getEventsWithViews(events);
+    }
+
+    private static MockClientHttpRequest stubRequest(HttpMethod method, URI uri, byte[] response) {
+        MockClientHttpRequest request = new MockClientHttpRequest(method, uri);
+        MockClientHttpResponse stub = new MockClientHttpResponse(response, HttpStatus.OK);
+        stub.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        request.setResponse(stub);
+        return request;
+    }
+}
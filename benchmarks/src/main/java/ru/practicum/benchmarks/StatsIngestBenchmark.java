@@ -0,0 +1,87 @@
+package ru.practicum.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Прием хитов сервером статистики на Spring MVC (StatisticController) и на WebFlux (ReactiveStatisticController)
+ * в режиме wal. Сервер запускается отдельным процессом из stats_server/target/stats-server-0.0.1-SNAPSHOT-exec.jar
+ * (путь меняется свойством stats.jar), поэтому перед запуском нужен mvn install. Фильтр хитов выключен,
+ * чтобы каждый запрос доходил до журнала.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Threads(64)
+@Fork(1)
+public class StatsIngestBenchmark {
+    @Param({"servlet", "reactive"})
+    private String stack;
+
+    private ServerProcess server;
+    private HttpClient client;
+    private URI hitUri;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, InterruptedException {
+        String jar = System.getProperty("stats.jar", "stats_server/target/stats-server-0.0.1-SNAPSHOT-exec.jar");
+        Path walDir = Files.createTempDirectory("stats-wal");
+        server = ServerProcess.start("stats-ingest-" + stack, List.of("-jar", jar,
+                "--spring.profiles.active=test" + ("reactive".equals(stack) ? ",reactive" : ""),
+                "--stats.ingest.mode=wal",
+                "--stats.ingest.wal.dir=" + walDir,
+                "--stats.filter.enabled=false",
+                "--logging.level.root=WARN"));
+        client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        hitUri = server.uri("/hit");
+        server.awaitHealthy();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        server.stop();
+    }
+
+    @Benchmark
+    public int postHit() throws IOException, InterruptedException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String body = "{\"app\":\"ewm-main-service\",\"uri\":\"/events/" + random.nextInt(1000) + "\","
+                + "\"ip\":\"10.0." + random.nextInt(256) + "." + random.nextInt(256) + "\","
+                + "\"timestamp\":\"2022-09-06 11:00:23\"}";
+        HttpRequest request = HttpRequest.newBuilder(hitUri)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+        if (status != 200) {
+            throw new IllegalStateException("POST /hit вернул " + status);
+        }
+        return status;
+    }
+}
@@ -0,0 +1,59 @@
+package ru.practicum.load_tests;
+
+import java.util.Arrays;
+
+/**
+ * Задержки одного эндпоинта. Каждый поток пишет в собственный экземпляр без синхронизации,
+ * в конце прогона экземпляры сливаются через {@link #merge(EndpointStats)}.
+ */
+public class EndpointStats {
+    private long[] latencies = new long[1024];
+    private int count;
+    private int errors;
+
+    public void record(long latencyNanos, int status) {
+        if (count == latencies.length) {
+            latencies = Arrays.copyOf(latencies, count * 2);
+        }
+        latencies[count++] = latencyNanos;
+        if (status < 200 || status >= 300) {
+            errors++;
+        }
+    }
+
+    public void recordFailure(long latencyNanos) {
+        record(latencyNanos, 0);
+    }
+
+    public void merge(EndpointStats other) {
+        if (count + other.count > latencies.length) {
+            latencies = Arrays.copyOf(latencies, count + other.count);
+        }
+        System.arraycopy(other.latencies, 0, latencies, count, other.count);
+        count += other.count;
+        errors += other.errors;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public int getErrors() {
+        return errors;
+    }
+
+    /**
+     * Перцентиль задержки в миллисекундах, метод ближайшего ранга
+     *
+     * @param percentile от 0 до 100
+     */
+    public double percentileMillis(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long[] sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+        int rank = (int) Math.ceil(percentile / 100 * count) - 1;
+        return sorted[Math.max(rank, 0)] / 1_000_000.0;
+    }
+}
@@ -0,0 +1,80 @@
+package ru.practicum.load_tests;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * Тонкая обертка над JDK HttpClient для обращений к main_server
+ */
+public class LoadClient {
+    private final HttpClient http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final String baseUrl;
+
+    public LoadClient(int port) {
+        this.baseUrl = "http://localhost:" + port;
+    }
+
+    public HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build();
+    }
+
+    public HttpRequest post(String path, Object body) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(toJson(body)))
+                .build();
+    }
+
+    public HttpRequest patch(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .method("PATCH", HttpRequest.BodyPublishers.noBody())
+                .build();
+    }
+
+    /**
+     * Отправляет запрос и возвращает код ответа, тело ответа отбрасывается
+     */
+    public int send(HttpRequest request) throws IOException, InterruptedException {
+        return http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    /**
+     * Отправляет запрос наполнения базы и возвращает тело ответа. Неуспешный ответ прерывает прогон:
+     * без данных измерять нечего.
+     */
+    public JsonNode sendForJson(HttpRequest request) {
+        try {
+            HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() >= 300) {
+                throw new IllegalStateException(String.format("%s %s -> %d: %s", request.method(), request.uri(),
+                        response.statusCode(), response.body()));
+            }
+            return response.body().isEmpty() ? mapper.nullNode() : mapper.readTree(response.body());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String toJson(Object body) {
+        try {
+            return mapper.writeValueAsString(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package ru.practicum.load_tests;
+
+import lombok.Getter;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Параметры прогона. Передаются аргументами вида key=value, например
+ * {@code users=100 events=500 threads=32 duration=120}. Профили main_server (например ingest или read-heavy)
+ * добавляются аргументом profiles=..., набор сценариев выбирается аргументом mix=standard|write.
+ */
+@Getter
+public class LoadTestOptions {
+    private final int users;
+    private final int categories;
+    private final int events;
+    private final int requestsPerEvent;
+    private final int commentsPerEvent;
+    private final int threads;
+    private final int warmupSeconds;
+    private final int durationSeconds;
+    private final String dbUrl;
+    private final String dbUser;
+    private final String dbPassword;
+    private final String report;
+    private final String profiles;
+    private final String mix;
+
+    public LoadTestOptions(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (eq <= 0) {
+                throw new IllegalArgumentException("ожидается аргумент вида key=value: " + arg);
+            }
+            values.put(arg.substring(0, eq).replaceFirst("^--", ""), arg.substring(eq + 1));
+        }
+        users = intValue(values, "users", 50);
+        categories = intValue(values, "categories", 10);
+        events = intValue(values, "events", 200);
+        requestsPerEvent = intValue(values, "requestsPerEvent", 3);
+        commentsPerEvent = intValue(values, "commentsPerEvent", 5);
+        threads = intValue(values, "threads", 16);
+        warmupSeconds = intValue(values, "warmup", 10);
+        durationSeconds = intValue(values, "duration", 60);
+        dbUrl = values.get("dbUrl");
+        dbUser = values.getOrDefault("dbUser", "postgres");
+        dbPassword = values.getOrDefault("dbPassword", "postgres");
+        report = values.getOrDefault("report", "target/load-test-report.csv");
+        profiles = values.getOrDefault("profiles", "");
+        mix = values.getOrDefault("mix", "standard");
+    }
+
+    private static int intValue(Map<String, String> values, String key, int defaultValue) {
+        return values.containsKey(key) ? Integer.parseInt(values.get(key)) : defaultValue;
+    }
+}
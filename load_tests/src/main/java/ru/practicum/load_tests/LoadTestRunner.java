@@ -0,0 +1,152 @@
+package ru.practicum.load_tests;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import ru.practicum.main_server.MainServerApplication;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Нагрузочный прогон main_server: поднимает заглушку статистики и main_server в одном процессе
+ * (по умолчанию на H2, либо на внешнем Postgres через dbUrl=...), наполняет базу, прогревает
+ * и гоняет смешанный трафик фиксированным числом потоков. По каждому эндпоинту печатает RPS, p50 и p99
+ * и пишет ту же таблицу в CSV.
+ */
+@Slf4j
+public class LoadTestRunner {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = new LoadTestOptions(args);
+        try (StubStatsServer stats = new StubStatsServer();
+             ConfigurableApplicationContext context = startMainServer(options, stats.getPort())) {
+            int port = Integer.parseInt(context.getEnvironment().getRequiredProperty("local.server.port"));
+            LoadClient client = new LoadClient(port);
+            Seeder seeder = new Seeder(client, options);
+            seeder.seed();
+            TrafficMix mix = TrafficMix.of(options.getMix(), client, seeder);
+
+            log.info("LoadTestRunner: прогрев {} с, {} потоков", options.getWarmupSeconds(), options.getThreads());
+            drive(client, mix, options.getThreads(), options.getWarmupSeconds());
+            log.info("LoadTestRunner: замер {} с, {} потоков", options.getDurationSeconds(), options.getThreads());
+            Map<String, EndpointStats> result = drive(client, mix, options.getThreads(),
+                    options.getDurationSeconds());
+            report(result, mix, options);
+            log.info("LoadTestRunner: заглушка статистики приняла {} хитов", stats.getHits());
+        }
+    }
+
+    /**
+     * Настройки передаются аргументами командной строки: у них приоритет выше, чем у application.properties
+     */
+    private static ConfigurableApplicationContext startMainServer(LoadTestOptions options, int statsPort) {
+        List<String> args = new ArrayList<>(List.of(
+                "--server.port=0",
+                "--STATS_SERVER_URL=http://localhost:" + statsPort,
+                "--logging.level.root=WARN",
+                "--logging.level.org.springframework.orm.jpa=WARN",
+                "--logging.level.org.springframework.orm.jpa.JpaTransactionManager=WARN",
+                "--logging.level.org.springframework.transaction.interceptor=WARN",
+                "--logging.level.ru.practicum.load_tests=INFO"));
+        List<String> profiles = new ArrayList<>();
+        if (options.getDbUrl() == null) {
+            profiles.add("test");
+        } else {
+            args.add("--spring.datasource.url=" + options.getDbUrl());
+            args.add("--spring.datasource.username=" + options.getDbUser());
+            args.add("--spring.datasource.password=" + options.getDbPassword());
+        }
+        if (!options.getProfiles().isEmpty()) {
+            profiles.add(options.getProfiles());
+        }
+        if (!profiles.isEmpty()) {
+            args.add("--spring.profiles.active=" + String.join(",", profiles));
+        }
+        return new SpringApplicationBuilder(MainServerApplication.class).run(args.toArray(new String[0]));
+    }
+
+    /**
+     * Замкнутая модель нагрузки: каждый поток отправляет следующий запрос сразу после ответа на предыдущий
+     */
+    private static Map<String, EndpointStats> drive(LoadClient client, TrafficMix mix, int threads, int seconds)
+            throws Exception {
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<Map<String, EndpointStats>>> workers = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            workers.add(executor.submit(() -> {
+                Map<String, EndpointStats> local = new HashMap<>();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                while (System.nanoTime() < deadline) {
+                    TrafficMix.Scenario scenario = mix.next(random);
+                    EndpointStats stats = local.computeIfAbsent(scenario.getName(), name -> new EndpointStats());
+                    long started = System.nanoTime();
+                    try {
+                        int status = client.send(scenario.request(random));
+                        stats.record(System.nanoTime() - started, status);
+                    } catch (IOException e) {
+                        stats.recordFailure(System.nanoTime() - started);
+                    }
+                }
+                return local;
+            }));
+        }
+        Map<String, EndpointStats> merged = new HashMap<>();
+        for (Future<Map<String, EndpointStats>> worker : workers) {
+            worker.get().forEach((name, stats) -> merged.computeIfAbsent(name, n -> new EndpointStats()).merge(stats));
+        }
+        executor.shutdown();
+        return merged;
+    }
+
+    private static void report(Map<String, EndpointStats> result, TrafficMix mix, LoadTestOptions options)
+            throws IOException {
+        Map<String, EndpointStats> rows = new LinkedHashMap<>();
+        EndpointStats total = new EndpointStats();
+        for (TrafficMix.Scenario scenario : mix.getScenarios()) {
+            EndpointStats stats = result.getOrDefault(scenario.getName(), new EndpointStats());
+            rows.put(scenario.getName(), stats);
+            total.merge(stats);
+        }
+        rows.put("TOTAL", total);
+
+        Path path = Path.of(options.getReport());
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        String format = "%-36s %9s %7s %9s %9s %9s %9s%n";
+        System.out.printf(format, "endpoint", "requests", "errors", "rps", "p50, ms", "p99, ms", "max, ms");
+        try (PrintWriter csv = new PrintWriter(Files.newBufferedWriter(path, StandardCharsets.UTF_8))) {
+            csv.println("endpoint,requests,errors,rps,p50_ms,p99_ms,max_ms");
+            for (Map.Entry<String, EndpointStats> row : rows.entrySet()) {
+                EndpointStats stats = row.getValue();
+                double rps = (double) stats.getCount() / options.getDurationSeconds();
+                String[] values = {
+                        row.getKey(),
+                        String.valueOf(stats.getCount()),
+                        String.valueOf(stats.getErrors()),
+                        String.format(Locale.ROOT, "%.1f", rps),
+                        String.format(Locale.ROOT, "%.2f", stats.percentileMillis(50)),
+                        String.format(Locale.ROOT, "%.2f", stats.percentileMillis(99)),
+                        String.format(Locale.ROOT, "%.2f", stats.percentileMillis(100))};
+                System.out.printf(format, (Object[]) values);
+                csv.println(String.join(",", values));
+            }
+        }
+        log.info("LoadTestRunner: отчет записан в {}", path.toAbsolutePath());
+    }
+}
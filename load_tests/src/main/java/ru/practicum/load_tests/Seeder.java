@@ -0,0 +1,84 @@
+package ru.practicum.load_tests;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Наполняет main_server через его же API: пользователи, категории, опубликованные события,
+ * заявки на участие и комментарии (половина одобрена). Так данные проходят те же проверки, что и в работе.
+ */
+@Slf4j
+@Getter
+public class Seeder {
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final LoadClient client;
+    private final LoadTestOptions options;
+    private final List<Long> userIds = new ArrayList<>();
+    private final List<Long> categoryIds = new ArrayList<>();
+    private final List<Long> eventIds = new ArrayList<>();
+    private final List<Long> eventInitiators = new ArrayList<>();
+
+    public Seeder(LoadClient client, LoadTestOptions options) {
+        this.client = client;
+        this.options = options;
+    }
+
+    public void seed() {
+        long started = System.nanoTime();
+        for (int i = 0; i < options.getUsers(); i++) {
+            userIds.add(client.sendForJson(client.post("/admin/users",
+                    Map.of("name", "Пользователь " + i, "email", "load" + i + "@practicum.ru"))).get("id").asLong());
+        }
+        for (int i = 0; i < options.getCategories(); i++) {
+            categoryIds.add(client.sendForJson(client.post("/admin/categories",
+                    Map.of("name", "Категория " + i))).get("id").asLong());
+        }
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 0; i < options.getEvents(); i++) {
+            long initiator = userIds.get(i % userIds.size());
+            long eventId = client.sendForJson(client.post("/users/" + initiator + "/events",
+                    newEvent(i, categoryIds.get(i % categoryIds.size()), now))).get("id").asLong();
+            client.sendForJson(client.patch("/admin/events/" + eventId + "/publish"));
+            eventIds.add(eventId);
+            eventInitiators.add(initiator);
+
+            for (int r = 1; r <= options.getRequestsPerEvent() && r < userIds.size(); r++) {
+                long requester = userIds.get((i + r) % userIds.size());
+                client.sendForJson(client.post("/users/" + requester + "/requests?eventId=" + eventId, null));
+            }
+            for (int c = 0; c < options.getCommentsPerEvent(); c++) {
+                long author = userIds.get((i + c) % userIds.size());
+                long commentId = client.sendForJson(client.post("/users/" + author + "/comments?eventId=" + eventId,
+                        Map.of("text", "Комментарий " + c + " к событию " + i))).get("id").asLong();
+                if (c % 2 == 0) {
+                    client.sendForJson(client.patch("/admin/comments/" + commentId + "/approve"));
+                }
+            }
+        }
+        log.info("Seeder: создано {} пользователей, {} категорий, {} событий за {} мс", userIds.size(),
+                categoryIds.size(), eventIds.size(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /**
+     * Тело запроса на создание события с номером i; дата события - от суток до двух месяцев после now
+     */
+    static Map<String, Object> newEvent(int i, long categoryId, LocalDateTime now) {
+        return Map.of(
+                "annotation", "Аннотация нагрузочного события " + i,
+                "category", categoryId,
+                "description", "Описание нагрузочного события " + i,
+                "eventDate", now.plusDays(1 + i % 60).plusHours(i % 24).format(FORMATTER),
+                "location", Map.of("lat", 55.75f, "lon", 37.61f),
+                "paid", i % 2 == 0,
+                "participantLimit", 1000,
+                "requestModeration", true,
+                "title", "Событие " + i);
+    }
+}
@@ -0,0 +1,86 @@
+package ru.practicum.load_tests;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Заглушка сервера статистики на JDK HttpServer. Отвечает мгновенно, чтобы прогон измерял main_server,
+ * а не второй сервис: /hit принимает и считает хиты, /stats/query возвращает детерминированные просмотры
+ * для запрошенных адресов, /stats/top и /stats/series - пустые ответы.
+ */
+@Slf4j
+public class StubStatsServer implements AutoCloseable {
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newFixedThreadPool(8);
+    private final ObjectMapper mapper = new ObjectMapper();
+    private final LongAdder hits = new LongAdder();
+
+    public StubStatsServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(executor);
+        server.createContext("/hit", this::hit);
+        server.createContext("/stats/query", this::query);
+        server.createContext("/stats/top", exchange -> respond(exchange, 200, "{}"));
+        server.createContext("/stats/series", exchange -> respond(exchange, 200, "[]"));
+        server.start();
+        log.info("StubStatsServer: заглушка статистики запущена на порту {}", getPort());
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    private void hit(HttpExchange exchange) throws IOException {
+        drain(exchange.getRequestBody());
+        hits.increment();
+        respond(exchange, 201, "{}");
+    }
+
+    private void query(HttpExchange exchange) throws IOException {
+        JsonNode body = mapper.readTree(exchange.getRequestBody());
+        Map<String, Long> views = new LinkedHashMap<>();
+        for (JsonNode uri : body.path("uris")) {
+            views.put(uri.asText(), (long) Math.floorMod(uri.asText().hashCode(), 1000));
+        }
+        respond(exchange, 200, mapper.writeValueAsString(views));
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static void drain(InputStream in) throws IOException {
+        try (in) {
+            in.readAllBytes();
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
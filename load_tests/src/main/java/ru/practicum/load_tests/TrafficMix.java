@@ -0,0 +1,129 @@
+package ru.practicum.load_tests;
+
+import java.net.http.HttpRequest;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+
+/**
+ * Взвешенный набор сценариев. Веса стандартного набора примерно повторяют реальную нагрузку: в основном
+ * публичное чтение, меньше личного кабинета и немного административных запросов.
+ */
+public class TrafficMix {
+    private final List<Scenario> scenarios = new ArrayList<>();
+    private int totalWeight;
+
+    public static TrafficMix of(String name, LoadClient client, Seeder seeder) {
+        switch (name) {
+            case "standard":
+                return standard(client, seeder);
+            case "write":
+                return write(client, seeder);
+            default:
+                throw new IllegalArgumentException("неизвестный набор сценариев: " + name);
+        }
+    }
+
+    public static TrafficMix standard(LoadClient client, Seeder seeder) {
+        List<Long> users = seeder.getUserIds();
+        List<Long> events = seeder.getEventIds();
+        List<Long> categories = seeder.getCategoryIds();
+        return new TrafficMix()
+                .add("GET /events", 25, random -> client.get("/events?sort=EVENT_DATE&from=0&size=10"))
+                .add("GET /events?categories&sort=VIEWS", 10, random -> client.get("/events?categories="
+                        + pick(categories, random) + "&sort=VIEWS&from=0&size=20"))
+                .add("GET /events/{id}", 25, random -> client.get("/events/" + pick(events, random)))
+                .add("GET /events/{id}/comments", 8, random ->
+                        client.get("/events/" + pick(events, random) + "/comments"))
+                .add("GET /events/trending", 4, random -> client.get("/events/trending"))
+                .add("GET /categories", 4, random -> client.get("/categories"))
+                .add("GET /users/{id}/events", 6, random ->
+                        client.get("/users/" + pick(users, random) + "/events?from=0&size=10"))
+                .add("GET /users/{id}/requests", 6, random ->
+                        client.get("/users/" + pick(users, random) + "/requests"))
+                .add("GET /users/{id}/events/{id}", 4, random -> {
+                    int index = random.nextInt(events.size());
+                    return client.get("/users/" + seeder.getEventInitiators().get(index) + "/events/"
+                            + events.get(index));
+                })
+                .add("GET /admin/events", 4, random -> client.get("/admin/events?states=PUBLISHED&from=0&size=20"))
+                .add("GET /admin/users", 2, random -> client.get("/admin/users?ids="
+                        + pick(users, random) + "," + pick(users, random) + "&from=0&size=20"))
+                .add("GET /admin/comments", 2, random ->
+                        client.get("/admin/comments?state=NEW&eventId=" + pick(events, random)));
+    }
+
+    /**
+     * Пишущая нагрузка для сравнения настроек пачек: событие вставляет локацию и событие, подборка - строку
+     * compilations_events на каждое из 20 событий. Публичное чтение оставлено, чтобы запись конкурировала с ним за пул.
+     */
+    public static TrafficMix write(LoadClient client, Seeder seeder) {
+        List<Long> users = seeder.getUserIds();
+        List<Long> events = seeder.getEventIds();
+        List<Long> categories = seeder.getCategoryIds();
+        return new TrafficMix()
+                .add("POST /users/{id}/events", 35, random -> client.post("/users/" + pick(users, random) + "/events",
+                        Seeder.newEvent(random.nextInt(1000), pick(categories, random), LocalDateTime.now())))
+                .add("POST /users/{id}/comments", 35, random -> client.post("/users/" + pick(users, random)
+                        + "/comments?eventId=" + pick(events, random), Map.of("text", "Нагрузочный комментарий")))
+                .add("POST /admin/compilations", 10, random -> {
+                    Set<Long> compilation = new HashSet<>();
+                    while (compilation.size() < Math.min(20, events.size())) {
+                        compilation.add(pick(events, random));
+                    }
+                    return client.post("/admin/compilations",
+                            Map.of("events", compilation, "pinned", false, "title", "Подборка"));
+                })
+                .add("GET /events/{id}", 20, random -> client.get("/events/" + pick(events, random)));
+    }
+
+    public TrafficMix add(String name, int weight, Function<ThreadLocalRandom, HttpRequest> request) {
+        scenarios.add(new Scenario(name, weight, request));
+        totalWeight += weight;
+        return this;
+    }
+
+    public Scenario next(ThreadLocalRandom random) {
+        int point = random.nextInt(totalWeight);
+        for (Scenario scenario : scenarios) {
+            point -= scenario.weight;
+            if (point < 0) {
+                return scenario;
+            }
+        }
+        throw new IllegalStateException("пустой набор сценариев");
+    }
+
+    public List<Scenario> getScenarios() {
+        return scenarios;
+    }
+
+    private static long pick(List<Long> ids, ThreadLocalRandom random) {
+        return ids.get(random.nextInt(ids.size()));
+    }
+
+    public static class Scenario {
+        private final String name;
+        private final int weight;
+        private final Function<ThreadLocalRandom, HttpRequest> request;
+
+        Scenario(String name, int weight, Function<ThreadLocalRandom, HttpRequest> request) {
+            this.name = name;
+            this.weight = weight;
+            this.request = request;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public HttpRequest request(ThreadLocalRandom random) {
+            return request.apply(random);
+        }
+    }
+}
@@ -2,12 +2,20 @@ package ru.practicum.main_server;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.ConfigurableApplicationContext;
 
 @SpringBootApplication
 public class MainServerApplication {
 
+	/**
+	 * С ewm.startup.exit-after-start=true приложение завершается сразу после старта: так при сборке образа
+	 * делается обучающий запуск для архива классов CDS (-XX:ArchiveClassesAtExit)
+	 */
 	public static void main(String[] args) {
-		SpringApplication.run(MainServerApplication.class, args);
+		ConfigurableApplicationContext context = SpringApplication.run(MainServerApplication.class, args);
+		if (context.getEnvironment().getProperty("ewm.startup.exit-after-start", Boolean.class, false)) {
+			System.exit(SpringApplication.exit(context));
+		}
 	}
 
 }
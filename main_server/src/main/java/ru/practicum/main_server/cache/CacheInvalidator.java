@@ -0,0 +1,65 @@
+package ru.practicum.main_server.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Связывает изменения сущностей с кэшами: события своего узла рассылает по шине и применяет после коммита,
+ * события с других узлов применяет сразу при получении
+ */
+@Slf4j
+@Lazy(false)
+@Component
+public class CacheInvalidator {
+    private final List<LocalCache> caches;
+    private final InvalidationBus bus;
+
+    public CacheInvalidator(List<LocalCache> caches, InvalidationBus bus) {
+        this.caches = caches;
+        this.bus = bus;
+        bus.subscribe(this);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void publish(EntityChangedEvent event) {
+        bus.publish(event);
+    }
+
+    @TransactionalEventListener
+    public void onLocalChange(EntityChangedEvent event) {
+        invalidate(event);
+    }
+
+    public void onRemoteChange(EntityChangedEvent event) {
+        log.debug("CacheInvalidator: изменение с другого узла {}", event);
+        invalidate(event);
+    }
+
+    public void onMissedChanges() {
+        log.info("CacheInvalidator: изменения с других узлов могли быть пропущены, сброс всех кэшей");
+        forEachCache(LocalCache::invalidateAll, "все записи");
+    }
+
+    private void invalidate(EntityChangedEvent event) {
+        forEachCache(cache -> cache.invalidate(event), event);
+    }
+
+    /**
+     * Ошибка одного кэша не должна мешать сбросу остальных и не должна доходить до потока шины
+     */
+    private void forEachCache(Consumer<LocalCache> action, Object reason) {
+        for (LocalCache cache : caches) {
+            try {
+                action.accept(cache);
+            } catch (RuntimeException e) {
+                log.error("CacheInvalidator: ошибка сброса кэша {} по {}", cache.getClass().getSimpleName(), reason, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package ru.practicum.main_server.cache;
+
+import ru.practicum.main_server.model.Category;
+import ru.practicum.main_server.model.User;
+
+/**
+ * Сущности, копии которых хранятся в кэшах узла и должны сбрасываться на всех узлах после изменения
+ */
+public enum CachedEntity {
+    CATEGORY(Category.class),
+    USER(User.class);
+
+    private final Class<?> entityClass;
+
+    CachedEntity(Class<?> entityClass) {
+        this.entityClass = entityClass;
+    }
+
+    public Class<?> getEntityClass() {
+        return entityClass;
+    }
+}
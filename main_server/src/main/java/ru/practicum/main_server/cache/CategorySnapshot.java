@@ -0,0 +1,204 @@
+package ru.practicum.main_server.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.main_server.mapper.CategoryMapper;
+import ru.practicum.main_server.model.dto.CategoryDto;
+import ru.practicum.main_server.repository.CategoryRepository;
+
+import java.io.UncheckedIOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Неизменяемый снимок всех категорий, отсортированных по id, вместе с заранее сериализованным JSON.
+ * Снимок целиком пересобирается после изменения категории на любом узле (см. {@link CacheInvalidator}) и подменяется одной
+ * volatile-записью, поэтому читатели не берут блокировок и не ходят в базу.
+ */
+@Slf4j
+@Component
+public class CategorySnapshot implements LocalCache {
+    private static final byte[] EMPTY_ARRAY = {'[', ']'};
+
+    private final CategoryRepository categoryRepository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate readTransaction;
+
+    private volatile Snapshot current;
+
+    public CategorySnapshot(CategoryRepository categoryRepository,
+                            ObjectMapper objectMapper,
+                            PlatformTransactionManager transactionManager) {
+        this.categoryRepository = categoryRepository;
+        this.objectMapper = objectMapper;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        // снимок видит только закоммиченные категории, даже если запрошен из чужой транзакции.
+        // Транзакция не read-only: пересборка сразу после коммита должна читать основную базу, а не реплику
+        this.readTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Страница с номером from / size, как у PageRequest.of(from / size, size)
+     *
+     * @param from не меньше 0
+     * @param size больше 0
+     */
+    public List<CategoryDto> page(int from, int size) {
+        List<CategoryDto> all = snapshot().categories;
+        int start = pageStart(from, size);
+        if (start >= all.size()) {
+            return Collections.emptyList();
+        }
+        return all.subList(start, pageEnd(start, size, all.size()));
+    }
+
+    /**
+     * JSON-массив категорий страницы {@link #page(int, int)}. Страница со всеми категориями отдается готовым
+     * массивом без копирования
+     */
+    public byte[] pageJson(int from, int size) {
+        Snapshot snapshot = snapshot();
+        int total = snapshot.categories.size();
+        from = pageStart(from, size);
+        if (from >= total) {
+            return EMPTY_ARRAY;
+        }
+        int to = pageEnd(from, size, total);
+        if (from == 0 && to == total) {
+            return snapshot.allJson;
+        }
+        int length = 1 + (to - from);
+        for (int i = from; i < to; i++) {
+            length += snapshot.json[i].length;
+        }
+        byte[] page = new byte[length];
+        int pos = 0;
+        page[pos++] = '[';
+        for (int i = from; i < to; i++) {
+            if (i > from) {
+                page[pos++] = ',';
+            }
+            System.arraycopy(snapshot.json[i], 0, page, pos, snapshot.json[i].length);
+            pos += snapshot.json[i].length;
+        }
+        page[pos] = ']';
+        return page;
+    }
+
+    /**
+     * @return категория или null, если ее нет в снимке
+     */
+    public CategoryDto get(long id) {
+        Snapshot snapshot = snapshot();
+        Integer index = snapshot.indexById.get(id);
+        return index == null ? null : snapshot.categories.get(index);
+    }
+
+    /**
+     * @return JSON категории или null, если ее нет в снимке
+     */
+    public byte[] getJson(long id) {
+        Snapshot snapshot = snapshot();
+        Integer index = snapshot.indexById.get(id);
+        return index == null ? null : snapshot.json[index];
+    }
+
+    public byte[] toJson(CategoryDto category) {
+        try {
+            return objectMapper.writeValueAsBytes(category);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void invalidate(EntityChangedEvent event) {
+        if (event.getEntity() == CachedEntity.CATEGORY) {
+            log.debug("CategorySnapshot: пересборка снимка после изменения категории id={}", event.getId());
+            refresh();
+        }
+    }
+
+    @Override
+    public void invalidateAll() {
+        refresh();
+    }
+
+    /**
+     * Пересборки идут по очереди, чтобы более старое состояние базы не перезаписало более новое
+     */
+    public synchronized void refresh() {
+        List<CategoryDto> categories;
+        try {
+            categories = readTransaction.execute(status -> categoryRepository.findAll(Sort.by("id"))
+                    .stream()
+                    .map(CategoryMapper::toCategoryDto)
+                    .collect(Collectors.toList()));
+        } catch (RuntimeException e) {
+            // устаревший снимок не отдаем: следующее чтение попробует собрать его заново
+            current = null;
+            throw e;
+        }
+        current = new Snapshot(categories, objectMapper);
+        log.debug("CategorySnapshot: в снимке {} категорий", categories.size());
+    }
+
+    private static int pageStart(int from, int size) {
+        if (from < 0 || size <= 0) {
+            throw new IllegalArgumentException(String.format("недопустимая страница from=%d, size=%d", from, size));
+        }
+        return from / size * size;
+    }
+
+    /**
+     * Конец страницы без переполнения int при size, близком к Integer.MAX_VALUE
+     */
+    private static int pageEnd(int start, int size, int total) {
+        return (int) Math.min(total, (long) start + size);
+    }
+
+    private Snapshot snapshot() {
+        Snapshot snapshot = current;
+        if (snapshot == null) {
+            synchronized (this) {
+                if (current == null) {
+                    refresh();
+                }
+                snapshot = current;
+            }
+        }
+        return snapshot;
+    }
+
+    private static class Snapshot {
+        private final List<CategoryDto> categories;
+        private final Map<Long, Integer> indexById;
+        private final byte[][] json;
+        private final byte[] allJson;
+
+        private Snapshot(List<CategoryDto> categories, ObjectMapper objectMapper) {
+            this.categories = Collections.unmodifiableList(categories);
+            Map<Long, Integer> index = new HashMap<>(categories.size() * 2);
+            this.json = new byte[categories.size()][];
+            try {
+                for (int i = 0; i < categories.size(); i++) {
+                    index.put(categories.get(i).getId(), i);
+                    json[i] = objectMapper.writeValueAsBytes(categories.get(i));
+                }
+                this.allJson = objectMapper.writeValueAsBytes(categories);
+            } catch (JsonProcessingException e) {
+                throw new UncheckedIOException(e);
+            }
+            this.indexById = Collections.unmodifiableMap(index);
+        }
+    }
+}
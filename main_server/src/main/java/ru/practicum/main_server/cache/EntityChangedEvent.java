@@ -0,0 +1,13 @@
+package ru.practicum.main_server.cache;
+
+import lombok.Value;
+
+/**
+ * Сущность создана, изменена или удалена. Публикуется внутри транзакции админского сервиса,
+ * {@link CacheInvalidator} рассылает его по {@link InvalidationBus} и сбрасывает кэши узла после коммита
+ */
+@Value
+public class EntityChangedEvent {
+    CachedEntity entity;
+    long id;
+}
@@ -0,0 +1,62 @@
+package ru.practicum.main_server.cache;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PreDestroy;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Шина внутри одной JVM для тестов и профиля на H2: все экземпляры шины (по одному на контекст приложения)
+ * считаются узлами и получают события друг друга после коммита
+ */
+@Component
+@ConditionalOnProperty(name = "ewm.cache.invalidation.bus", havingValue = "in-process")
+public class InProcessInvalidationBus implements InvalidationBus {
+    private static final List<InProcessInvalidationBus> NODES = new CopyOnWriteArrayList<>();
+
+    private volatile CacheInvalidator invalidator;
+
+    public InProcessInvalidationBus() {
+        NODES.add(this);
+    }
+
+    @Override
+    public void publish(EntityChangedEvent event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            deliver(event);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                deliver(event);
+            }
+        });
+    }
+
+    @Override
+    public void subscribe(CacheInvalidator invalidator) {
+        this.invalidator = invalidator;
+    }
+
+    /**
+     * Отключает узел от шины при закрытии контекста
+     */
+    @PreDestroy
+    public void close() {
+        NODES.remove(this);
+    }
+
+    private void deliver(EntityChangedEvent event) {
+        for (InProcessInvalidationBus node : NODES) {
+            CacheInvalidator receiver = node.invalidator;
+            if (node != this && receiver != null) {
+                receiver.onRemoteChange(event);
+            }
+        }
+    }
+}
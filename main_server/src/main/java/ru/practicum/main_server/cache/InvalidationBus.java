@@ -0,0 +1,17 @@
+package ru.practicum.main_server.cache;
+
+/**
+ * Канал рассылки изменений между узлами main_server. Реализация выбирается свойством
+ * ewm.cache.invalidation.bus: postgres (LISTEN/NOTIFY, по умолчанию) или in-process
+ */
+public interface InvalidationBus {
+    /**
+     * Вызывается внутри пишущей транзакции. Другие узлы получают событие только после ее коммита
+     */
+    void publish(EntityChangedEvent event);
+
+    /**
+     * Получатель событий с других узлов. Свои события узел обратно не получает
+     */
+    void subscribe(CacheInvalidator invalidator);
+}
@@ -0,0 +1,13 @@
+package ru.practicum.main_server.cache;
+
+/**
+ * Кэш, живущий в памяти одного узла main_server
+ */
+public interface LocalCache {
+    void invalidate(EntityChangedEvent event);
+
+    /**
+     * Вызывается, когда узел мог пропустить изменения, например после переподключения к шине
+     */
+    void invalidateAll();
+}
@@ -0,0 +1,133 @@
+package ru.practicum.main_server.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Шина на Postgres LISTEN/NOTIFY. pg_notify выполняется в пишущей транзакции, поэтому уведомление уходит
+ * только при ее коммите. Слушатель держит отдельное соединение вне пула; после обрыва он переподключается
+ * и сбрасывает все кэши, так как уведомления за время простоя потеряны.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "ewm.cache.invalidation.bus", havingValue = "postgres", matchIfMissing = true)
+public class PostgresInvalidationBus implements InvalidationBus {
+    private static final String SEPARATOR = "|";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String url;
+    private final String username;
+    private final String password;
+    private final String channel;
+    private final long pollTimeoutMs;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final Thread listener = new Thread(this::listenLoop, "cache-invalidation-listener");
+
+    private volatile boolean running = true;
+    private volatile CacheInvalidator invalidator;
+
+    public PostgresInvalidationBus(JdbcTemplate jdbcTemplate,
+                                   @Value("${spring.datasource.url}") String url,
+                                   @Value("${spring.datasource.username}") String username,
+                                   @Value("${spring.datasource.password}") String password,
+                                   @Value("${ewm.cache.invalidation.channel:ewm_cache_invalidation}") String channel,
+                                   @Value("${ewm.cache.invalidation.poll-timeout-ms:1000}") long pollTimeoutMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.channel = channel;
+        this.pollTimeoutMs = pollTimeoutMs;
+    }
+
+    @PostConstruct
+    void start() {
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        listener.join(pollTimeoutMs + TimeUnit.SECONDS.toMillis(5));
+    }
+
+    @Override
+    public void publish(EntityChangedEvent event) {
+        String payload = nodeId + SEPARATOR + event.getEntity() + SEPARATOR + event.getId();
+        jdbcTemplate.query("select pg_notify(?, ?)", rs -> null, channel, payload);
+    }
+
+    @Override
+    public void subscribe(CacheInvalidator invalidator) {
+        this.invalidator = invalidator;
+    }
+
+    private void listenLoop() {
+        boolean reconnect = false;
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(url, username, password)) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + channel);
+                }
+                log.info("PostgresInvalidationBus: узел {} слушает канал {}", nodeId, channel);
+                if (reconnect && invalidator != null) {
+                    invalidator.onMissedChanges();
+                }
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications((int) pollTimeoutMs);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            receive(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                log.warn("PostgresInvalidationBus: соединение слушателя потеряно: {}", e.getMessage());
+                reconnect = true;
+                pause();
+            } catch (RuntimeException e) {
+                log.error("PostgresInvalidationBus: ошибка обработки уведомлений, переподключение", e);
+                reconnect = true;
+                pause();
+            }
+        }
+    }
+
+    private void receive(String payload) {
+        String[] parts = payload.split("\\" + SEPARATOR);
+        CacheInvalidator receiver = invalidator;
+        if (parts.length != 3 || nodeId.equals(parts[0]) || receiver == null) {
+            return;
+        }
+        try {
+            receiver.onRemoteChange(new EntityChangedEvent(CachedEntity.valueOf(parts[1]), Long.parseLong(parts[2])));
+        } catch (IllegalArgumentException e) {
+            log.warn("PostgresInvalidationBus: неизвестное уведомление {}", payload);
+        }
+    }
+
+    private void pause() {
+        try {
+            TimeUnit.MILLISECONDS.sleep(pollTimeoutMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+}
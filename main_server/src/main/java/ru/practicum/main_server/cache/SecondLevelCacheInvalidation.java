@@ -0,0 +1,66 @@
+package ru.practicum.main_server.cache;
+
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import javax.annotation.PreDestroy;
+import javax.persistence.EntityManagerFactory;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Второй уровень кэша Hibernate свой на каждом узле: запись через сессию обновляет его только там,
+ * где она выполнялась. При чтении с реплик запись сбрасывается второй раз через max-lag-seconds:
+ * read-only транзакция на отстающей реплике могла успеть положить в кэш старое значение.
+ */
+@Component
+public class SecondLevelCacheInvalidation implements LocalCache {
+    private final Cache cache;
+    private final long replicaLagMs;
+    private final ScheduledExecutorService delayedEviction;
+
+    public SecondLevelCacheInvalidation(EntityManagerFactory entityManagerFactory,
+                                        @Value("${ewm.datasource.replica.urls:}") String replicaUrls,
+                                        @Value("${ewm.datasource.replica.max-lag-seconds:5}") double maxLagSeconds) {
+        this.cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        this.replicaLagMs = StringUtils.hasText(replicaUrls) ? (long) (maxLagSeconds * 1000) : 0;
+        this.delayedEviction = replicaLagMs > 0 ? Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "l2-delayed-eviction");
+            thread.setDaemon(true);
+            return thread;
+        }) : null;
+    }
+
+    @Override
+    public void invalidate(EntityChangedEvent event) {
+        evict(event);
+        if (delayedEviction != null) {
+            delayedEviction.schedule(() -> evict(event), replicaLagMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public void invalidateAll() {
+        for (CachedEntity entity : CachedEntity.values()) {
+            cache.evictEntityData(entity.getEntityClass());
+            cache.evictNaturalIdData(entity.getEntityClass());
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        if (delayedEviction != null) {
+            delayedEviction.shutdownNow();
+        }
+    }
+
+    private void evict(EntityChangedEvent event) {
+        Class<?> entityClass = event.getEntity().getEntityClass();
+        cache.evictEntityData(entityClass, event.getId());
+        cache.evictNaturalIdData(entityClass);
+    }
+}
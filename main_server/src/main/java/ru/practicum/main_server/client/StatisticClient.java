@@ -1,44 +1,56 @@
 package ru.practicum.main_server.client;
 
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.DefaultUriBuilderFactory;
-import ru.practicum.main_server.exception.InternalServerErrorException;
 import ru.practicum.main_server.model.Event;
 import ru.practicum.main_server.model.dto.EndpointHitDto;
-import ru.practicum.main_server.model.dto.ViewStats;
+import ru.practicum.main_server.model.dto.StatsQueryDto;
+import ru.practicum.main_server.model.dto.ViewsBucketDto;
 import ru.practicum.main_server.repository.EventRepository;
 
-import java.io.UnsupportedEncodingException;
-import java.net.URLEncoder;
-import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.function.Function;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 public class StatisticClient {
+    public static final String APP_NAME = "main_server";
+    /**
+     * Наибольший размер топа, который отдает сервер статистики (TrendingService.MAX_K)
+     */
+    public static final int MAX_TOP_K = 1000;
+    private static final String EVENTS_URI_PREFIX = "/events/";
     protected final RestTemplate rest;
     private final EventRepository eventRepository;
+    private final MeterRegistry meterRegistry;
     private final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
 
     @Autowired
     public StatisticClient(@Value("${STATS_SERVER_URL}") String serverUrl, RestTemplateBuilder builder,
-                           EventRepository eventRepository) {
+                           EventRepository eventRepository, MeterRegistry meterRegistry) {
         this.eventRepository = eventRepository;
+        this.meterRegistry = meterRegistry;
         rest = builder
                 .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl))
                 .requestFactory(HttpComponentsClientHttpRequestFactory::new)
@@ -46,26 +58,35 @@ public class StatisticClient {
     }
 
     public void createHit(EndpointHitDto endpointHit) {
-        rest.postForEntity("/hit", endpointHit, Object.class);
+        timed("hit", () -> rest.postForEntity("/hit", endpointHit, Object.class));
     }
 
-    private List<ViewStats> getStats(LocalDateTime start, LocalDateTime end, List<String> uris, Boolean unique)
-            throws UnsupportedEncodingException {
-        ResponseEntity<List<ViewStats>> responseEntity =
+    /**
+     * Запрашивает количество просмотров по списку адресов одним POST-запросом. Адреса передаются в теле,
+     * поэтому размер списка не ограничен длиной строки запроса; ответ запрашивается в бинарном формате CBOR.
+     *
+     * @return Map адрес -> количество просмотров
+     */
+    private Map<String, Long> getStats(LocalDateTime start, LocalDateTime end, List<String> uris, boolean unique) {
+        StatsQueryDto query = StatsQueryDto.builder()
+                .start(start.format(formatter))
+                .end(end.format(formatter))
+                .uris(uris)
+                .unique(unique)
+                .build();
+        ResponseEntity<Map<String, Long>> responseEntity = timed("query", () ->
                 rest.exchange(
-                        "/stats?start=" + URLEncoder.encode(start.format(formatter),
-                                StandardCharsets.UTF_8.toString()) +
-                                "&end=" + URLEncoder.encode(end.format(formatter),
-                                StandardCharsets.UTF_8.toString()) +
-                                "&uris=" + uris +
-                                "&unique=" + unique,
-                        HttpMethod.GET,
-                        null,
+                        "/stats/query",
+                        HttpMethod.POST,
+                        new HttpEntity<>(query, cborHeaders()),
                         new ParameterizedTypeReference<>() {
                         }
-                );
-        log.info(":::::StatisticClient getStats-> response:{}", responseEntity);
-        return responseEntity.getBody();
+                ));
+        Map<String, Long> stats = responseEntity.getBody() == null ? Collections.emptyMap() : responseEntity.getBody();
+        log.debug(":::::StatisticClient getStats-> кол-во адресов в ответе: {}", stats.size());
+        payloadSummary("query", "request").record(uris.size());
+        payloadSummary("query", "response").record(stats.size());
+        return stats;
     }
 
     /**
@@ -75,21 +96,13 @@ public class StatisticClient {
      * @return int - количество просмотров
      */
     public Integer getViewsSingleEvent(long eventId) {
-        List<ViewStats> stats;
-        try {
-            stats = getStats(
-                    eventRepository.getReferenceById(eventId).getCreatedOn(),
-                    LocalDateTime.now(),
-                    List.of("/events/" + eventId),
-                    false);
-        } catch (UnsupportedEncodingException e) {
-            throw new InternalServerErrorException("неудачная кодировка");
-        }
-        if (!stats.isEmpty()) {
-            log.info("::::stats={}", stats);
-            return stats.get(0).getHits();
-        }
-        return 0;
+        String uri = "/events/" + eventId;
+        Map<String, Long> stats = getStats(
+                eventRepository.getReferenceById(eventId).getCreatedOn(),
+                LocalDateTime.now(),
+                List.of(uri),
+                false);
+        return stats.getOrDefault(uri, 0L).intValue();
     }
 
     /**
@@ -99,34 +112,108 @@ public class StatisticClient {
      * @return List<Event> - события с просмотрами
      */
     public List<Event> getEventsWithViews(List<Event> events) {
-        List<ViewStats> stats;
+        if (events.isEmpty()) {
+            return events;
+        }
         List<String> uris = events.stream()
                 .map(e -> "/events/" + e.getId())
                 .collect(Collectors.toList());
-        try {
-            stats = getStats(
-                    LocalDateTime.now().minusDays(365),
-                    LocalDateTime.now(),
-                    uris,
-                    false);
-        } catch (UnsupportedEncodingException e) {
-            throw new InternalServerErrorException("неудачная кодировка");
+        Map<String, Long> stats = getStats(
+                LocalDateTime.now().minusDays(365),
+                LocalDateTime.now(),
+                uris,
+                false);
+        for (Event e : events) {
+            e.setViews(stats.getOrDefault("/events/" + e.getId(), 0L).intValue());
         }
+        return events;
+    }
 
-        if (!stats.isEmpty()) {
-            log.info("stats не пустой");
-            Map<String, Event> eventsMap = events.stream().collect(Collectors.toMap(e -> "/events/" + e.getId(),
-                    Function.identity()));
-            Map<String, Integer> statsMap = stats.stream()
-                    .collect(Collectors.toMap(ViewStats::getUri, ViewStats::getHits));
-            for (Map.Entry<String, Integer> entry : statsMap.entrySet()) {
-                Event e = eventsMap.get(entry.getKey());
-                e.setViews(entry.getValue());
+    /**
+     * Обращается к серверу статистики за самыми просматриваемыми событиями за последние window минут
+     *
+     * @param window окно в минутах
+     * @param k      размер топа, не больше {@link #MAX_TOP_K}
+     * @return Map айди события -> количество просмотров, по убыванию просмотров
+     */
+    public Map<Long, Integer> getTrendingEventViews(int window, int k) {
+        Map<String, Long> top = timed("top", () -> rest.exchange(
+                "/stats/top?app={app}&uriPrefix={uriPrefix}&window={window}&k={k}",
+                HttpMethod.GET,
+                new HttpEntity<>(cborHeaders()),
+                new ParameterizedTypeReference<Map<String, Long>>() {
+                },
+                APP_NAME, EVENTS_URI_PREFIX, window, k
+        ).getBody());
+        Map<Long, Integer> views = new LinkedHashMap<>();
+        if (top == null) {
+            return views;
+        }
+        for (Map.Entry<String, Long> entry : top.entrySet()) {
+            String id = entry.getKey().substring(EVENTS_URI_PREFIX.length());
+            if (!id.isEmpty() && id.chars().allMatch(Character::isDigit)) {
+                views.put(Long.parseLong(id), entry.getValue().intValue());
             }
-            return new ArrayList<>(eventsMap.values());
         }
-        log.info("stats пустой");
-        return events;
+        return views;
+    }
+
+    /**
+     * Обращается к серверу статистики за просмотрами события по интервалам
+     *
+     * @param eventId айди события
+     * @param start   начало периода
+     * @param end     конец периода
+     * @param bucket  размер интервала: minute, hour или day
+     * @return List интервалов по возрастанию времени, интервалы без просмотров пропущены
+     */
+    public List<ViewsBucketDto> getViewsSeries(long eventId, LocalDateTime start, LocalDateTime end, String bucket) {
+        List<ViewsBucketDto> series = timed("series", () -> rest.exchange(
+                "/stats/series?uri={uri}&start={start}&end={end}&bucket={bucket}",
+                HttpMethod.GET,
+                new HttpEntity<>(cborHeaders()),
+                new ParameterizedTypeReference<List<ViewsBucketDto>>() {
+                },
+                EVENTS_URI_PREFIX + eventId, start.format(formatter), end.format(formatter), bucket
+        ).getBody());
+        return series == null ? Collections.emptyList() : series;
+    }
+
+    /**
+     * Выполняет обращение к серверу статистики и пишет его длительность в таймер stats.client.requests
+     * с тегами операции и исхода, чтобы отделить время на сервер статистики от времени на базу
+     */
+    private <T> T timed(String operation, Supplier<T> call) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String exception = "none";
+        try {
+            return call.get();
+        } catch (RuntimeException e) {
+            exception = e.getClass().getSimpleName();
+            throw e;
+        } finally {
+            sample.stop(Timer.builder("stats.client.requests")
+                    .description("Обращения к серверу статистики")
+                    .tag("operation", operation)
+                    .tag("outcome", "none".equals(exception) ? "success" : "error")
+                    .tag("exception", exception)
+                    .register(meterRegistry));
+        }
+    }
+
+    private DistributionSummary payloadSummary(String operation, String direction) {
+        return DistributionSummary.builder("stats.client.payload")
+                .description("Количество адресов в запросе и ответе сервера статистики")
+                .baseUnit("uris")
+                .tag("operation", operation)
+                .tag("direction", direction)
+                .register(meterRegistry);
     }
 
-}
\ No newline at end of file
+    private HttpHeaders cborHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setAccept(List.of(MediaType.APPLICATION_CBOR, MediaType.APPLICATION_JSON));
+        return headers;
+    }
+}
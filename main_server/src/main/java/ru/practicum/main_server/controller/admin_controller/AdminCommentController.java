@@ -1,11 +1,16 @@
 package ru.practicum.main_server.controller.admin_controller;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.main_server.model.CommentState;
 import ru.practicum.main_server.model.dto.CommentDto;
+import ru.practicum.main_server.model.dto.CommentModerationRequest;
+import ru.practicum.main_server.model.dto.CommentModerationResultDto;
 import ru.practicum.main_server.service.admin_service.AdminCommentService;
 
+import javax.validation.Valid;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -20,8 +25,25 @@ public class AdminCommentController {
 
     @GetMapping
     public List<CommentDto> readComments(@RequestParam CommentState state,
-                                         @RequestParam long eventId) {
-        return commentService.readComments(state, eventId);
+                                         @RequestParam long eventId,
+                                         @RequestParam(required = false)
+                                         @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                         LocalDateTime afterCreated,
+                                         @RequestParam(required = false) Long afterId,
+                                         @RequestParam(defaultValue = "20") int size) {
+        return commentService.readComments(state, eventId, afterCreated, afterId, size);
+    }
+
+    @PostMapping("/approve")
+    public List<CommentModerationResultDto> approve(@RequestBody @Valid CommentModerationRequest request) {
+        log.info(":::POST /admin/comments/approve одобрение {} комментариев", request.getCommentIds().size());
+        return commentService.approveComments(request.getCommentIds());
+    }
+
+    @PostMapping("/reject")
+    public List<CommentModerationResultDto> reject(@RequestBody @Valid CommentModerationRequest request) {
+        log.info(":::POST /admin/comments/reject отклонение {} комментариев", request.getCommentIds().size());
+        return commentService.rejectComments(request.getCommentIds());
     }
 
     @PatchMapping("/{comId}/reject")
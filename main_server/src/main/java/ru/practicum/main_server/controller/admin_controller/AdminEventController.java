@@ -6,6 +6,7 @@ import ru.practicum.main_server.model.*;
 import ru.practicum.main_server.model.dto.*;
 import ru.practicum.main_server.service.admin_service.AdminEventService;
 
+import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
 import java.util.List;
@@ -53,4 +54,16 @@ public class AdminEventController {
         log.info(":::PATCH /admin/events/{}/reject отклонить событие администратором", eventId);
         return adminEventService.rejectEvent(eventId);
     }
+
+    @PostMapping("/publish")
+    public List<EventModerationResultDto> publishEvents(@RequestBody @Valid EventModerationRequest request) {
+        log.info(":::POST /admin/events/publish опубликовать {} событий администратором", request.getEventIds().size());
+        return adminEventService.publishEvents(request.getEventIds());
+    }
+
+    @PostMapping("/reject")
+    public List<EventModerationResultDto> rejectEvents(@RequestBody @Valid EventModerationRequest request) {
+        log.info(":::POST /admin/events/reject отклонить {} событий администратором", request.getEventIds().size());
+        return adminEventService.rejectEvents(request.getEventIds());
+    }
 }
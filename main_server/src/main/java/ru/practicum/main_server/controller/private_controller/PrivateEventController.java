@@ -1,6 +1,7 @@
 package ru.practicum.main_server.controller.private_controller;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.main_server.model.dto.*;
 import ru.practicum.main_server.service.private_service.PrivateCommentService;
@@ -8,6 +9,7 @@ import ru.practicum.main_server.service.private_service.PrivateEventService;
 import ru.practicum.main_server.service.private_service.PrivateParticipationRequestService;
 
 import javax.validation.Valid;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -49,9 +51,11 @@ public class PrivateEventController {
 
     @GetMapping("/{eventId}")
     public EventFullDto getEventCurrentUser(@PathVariable Long userId,
-                                            @PathVariable Long eventId) {
-        log.info(":::GET /users/{}/events/{} чтение своего события по айди", userId, eventId);
-        return privateEventService.readEvent(userId, eventId);
+                                            @PathVariable Long eventId,
+                                            @RequestParam(required = false) String viewsSeries) {
+        log.info(":::GET /users/{}/events/{} чтение своего события по айди, viewsSeries={}", userId, eventId,
+                viewsSeries);
+        return privateEventService.readEvent(userId, eventId, viewsSeries);
     }
 
     @PatchMapping("/{eventId}")
@@ -69,6 +73,16 @@ public class PrivateEventController {
         return participationRequestService.readEventParticipation(userId, eventId);
     }
 
+    @PatchMapping("/{eventId}/requests")
+    public EventRequestStatusUpdateResult updateParticipationEventRequests(@PathVariable Long userId,
+                                                                           @PathVariable Long eventId,
+                                                                           @RequestBody @Valid
+                                                                           EventRequestStatusUpdateRequest request) {
+        log.info(":::PATCH /users/{}/events/{}/requests перевести {} запросов на участие в статус {}",
+                userId, eventId, request.getRequestIds().size(), request.getStatus());
+        return participationRequestService.updateParticipationRequests(userId, eventId, request);
+    }
+
     @PatchMapping("/{eventId}/requests/{reqId}/confirm")
     public ParticipationRequestDto approvalParticipationEventRequest(@PathVariable Long userId,
                                                                      @PathVariable Long eventId,
@@ -88,7 +102,12 @@ public class PrivateEventController {
     }
 
     @GetMapping("/{eventId}/comments")
-    public List<CommentDto> readEventComments(@PathVariable Long userId, @PathVariable Long eventId) {
-        return commentService.readEventComments(eventId);
+    public List<CommentDto> readEventComments(@PathVariable Long userId, @PathVariable Long eventId,
+                                              @RequestParam(required = false)
+                                              @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                              LocalDateTime afterCreated,
+                                              @RequestParam(required = false) Long afterId,
+                                              @RequestParam(defaultValue = "20") int size) {
+        return commentService.readEventComments(eventId, afterCreated, afterId, size);
     }
 }
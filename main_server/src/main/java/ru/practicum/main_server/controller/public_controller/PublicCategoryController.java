@@ -1,12 +1,10 @@
 package ru.practicum.main_server.controller.public_controller;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
-import ru.practicum.main_server.model.dto.CategoryDto;
 import ru.practicum.main_server.service.public_service.PublicCategoryService;
 
-import java.util.List;
-
 @RestController
 @RequestMapping(path = "/categories")
 @Slf4j
@@ -17,16 +15,19 @@ public class PublicCategoryController {
         this.categoryService = categoryService;
     }
 
-    @GetMapping
-    List<CategoryDto> readCategories(@RequestParam(defaultValue = "0") int from,
-                                     @RequestParam(defaultValue = "10") int size) {
-        log.info(":::GET /categories чтение списка категорий from={}, size={}", from, size);
-        return categoryService.readAllCategories(from, size);
+    /**
+     * Ответ отдается готовыми байтами JSON из снимка категорий, без сериализации на каждый запрос
+     */
+    @GetMapping(produces = MediaType.APPLICATION_JSON_VALUE)
+    byte[] readCategories(@RequestParam(defaultValue = "0") int from,
+                          @RequestParam(defaultValue = "10") int size) {
+        log.debug(":::GET /categories чтение списка категорий from={}, size={}", from, size);
+        return categoryService.readAllCategoriesJson(from, size);
     }
 
-    @GetMapping("/{id}")
-    CategoryDto readCategory(@PathVariable long id) {
-        log.info(":::GET /categories/{} чтение категории по id", id);
-        return categoryService.readCategory(id);
+    @GetMapping(path = "/{id}", produces = MediaType.APPLICATION_JSON_VALUE)
+    byte[] readCategory(@PathVariable long id) {
+        log.debug(":::GET /categories/{} чтение категории по id", id);
+        return categoryService.readCategoryJson(id);
     }
 }
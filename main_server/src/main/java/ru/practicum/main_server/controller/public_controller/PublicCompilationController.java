@@ -21,13 +21,13 @@ public class PublicCompilationController {
     List<CompilationDto> readCompilations(@RequestParam(required = false) Boolean pinned,
                                           @RequestParam(defaultValue = "0") int from,
                                           @RequestParam(defaultValue = "10") int size) {
-        log.info(":::GET /compilations чтение подборок pinned={}, from={}, size={}", pinned, from, size);
+        log.debug(":::GET /compilations чтение подборок pinned={}, from={}, size={}", pinned, from, size);
         return service.readCompilations(pinned, from, size);
     }
 
     @GetMapping("/{id}")
     CompilationDto readCompilation(@PathVariable long id) {
-        log.info(":::GET /compilations/{} чтение подборки по id", id);
+        log.debug(":::GET /compilations/{} чтение подборки по id", id);
         return service.readCompilation(id);
     }
 }
@@ -1,6 +1,7 @@
 package ru.practicum.main_server.controller.public_controller;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.main_server.model.dto.CommentDto;
 import ru.practicum.main_server.model.dto.EventFullDto;
@@ -9,6 +10,7 @@ import ru.practicum.main_server.service.public_service.PublicCommentService;
 import ru.practicum.main_server.service.public_service.PublicEventService;
 
 import javax.servlet.http.HttpServletRequest;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -33,25 +35,42 @@ public class PublicEventController {
                                           @RequestParam(required = false) String sort,
                                           @RequestParam(defaultValue = "0") int from,
                                           @RequestParam(defaultValue = "10") int size,
+                                          @RequestParam(defaultValue = "0") int lastComments,
                                           HttpServletRequest request) {
-        log.info(":::GET /events получение списка событий по параметрам: text={}, categories={}, paid={}, " +
-                        "rangeStart={}, rangeEnd={}, onlyAvailable={}, sort={}, from={}, size={}",
-                text, categories, paid, rangeStart, rangeEnd, onlyAvailable, sort, from, size);
+        log.debug(":::GET /events получение списка событий по параметрам: text={}, categories={}, paid={}, " +
+                        "rangeStart={}, rangeEnd={}, onlyAvailable={}, sort={}, from={}, size={}, lastComments={}",
+                text, categories, paid, rangeStart, rangeEnd, onlyAvailable, sort, from, size, lastComments);
         publicEventService.sentHitStat(request);
-        return publicEventService
-                .readEvents(text, categories, paid, rangeStart, rangeEnd, onlyAvailable, sort, from, size);
+        return publicEventService.readEvents(text, categories, paid, rangeStart, rangeEnd, onlyAvailable, sort,
+                from, size, lastComments);
+    }
+
+    @GetMapping("/trending")
+    public List<EventShortDto> readTrendingEvents(@RequestParam(defaultValue = "60") int window,
+                                                  @RequestParam(defaultValue = "10") int k) {
+        log.debug(":::GET /events/trending чтение самых просматриваемых событий window={}, k={}", window, k);
+        return publicEventService.readTrendingEvents(window, k);
     }
 
     @GetMapping("/{id}")
     public EventFullDto readEvent(@PathVariable long id, HttpServletRequest request) {
-        log.info(":::GET /events/{} чтение по id", id);
+        log.debug(":::GET /events/{} чтение по id", id);
         publicEventService.sentHitStat(request);
         return publicEventService.readEvent(id);
     }
 
+    /**
+     * Страница одобренных комментариев, следующая запрашивается с afterCreated и afterId последнего комментария
+     */
     @GetMapping("/{eventId}/comments")
-    public List<CommentDto> readEventComments(@PathVariable Long eventId) {
-        log.info(":::GET /events/{}/comments чтение комментариев по id события", eventId);
-        return commentService.readEventComments(eventId);
+    public List<CommentDto> readEventComments(@PathVariable Long eventId,
+                                              @RequestParam(required = false)
+                                              @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                              LocalDateTime afterCreated,
+                                              @RequestParam(required = false) Long afterId,
+                                              @RequestParam(defaultValue = "20") int size) {
+        log.debug(":::GET /events/{}/comments чтение комментариев по id события после {}/{}, size={}",
+                eventId, afterCreated, afterId, size);
+        return commentService.readEventComments(eventId, afterCreated, afterId, size);
     }
 }
@@ -0,0 +1,80 @@
+package ru.practicum.main_server.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.orm.jpa.AbstractEntityManagerFactoryBean;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Включается свойством ewm.datasource.replica.urls (адреса реплик через запятую) и заменяет
+ * DataSource из автоконфигурации. Пул основной базы настраивается как обычно через spring.datasource.*,
+ * пулы реплик наследуют его настройки и работают в режиме read-only.
+ */
+@Configuration
+@ConditionalOnProperty(name = "ewm.datasource.replica.urls")
+public class ReadReplicaConfiguration {
+
+    @Bean
+    public ReadReplicas readReplicas(DataSourceProperties properties,
+                                     Environment environment,
+                                     @Value("${ewm.datasource.replica.urls}") String urls,
+                                     @Value("${ewm.datasource.replica.username:${spring.datasource.username}}") String username,
+                                     @Value("${ewm.datasource.replica.password:${spring.datasource.password}}") String password,
+                                     @Value("${ewm.datasource.replica.lag-query}") String lagQuery,
+                                     @Value("${ewm.datasource.replica.max-lag-seconds:5}") double maxLagSeconds,
+                                     @Value("${ewm.datasource.replica.check-interval-ms:1000}") long checkIntervalMs) {
+        HikariDataSource primary = pool(properties, environment, "primary",
+                properties.determineUrl(), properties.determineUsername(), properties.determinePassword());
+        List<Replica> replicas = new ArrayList<>();
+        for (String url : StringUtils.commaDelimitedListToStringArray(urls)) {
+            String name = "replica-" + replicas.size();
+            HikariDataSource pool = pool(properties, environment, name, url.trim(), username, password);
+            pool.setReadOnly(true);
+            replicas.add(new Replica(name, pool));
+        }
+        return new ReadReplicas(primary, replicas, lagQuery, maxLagSeconds, checkIntervalMs);
+    }
+
+    @Bean
+    public DataSource dataSource(ReadReplicas readReplicas) {
+        return readReplicas.getRoutingDataSource();
+    }
+
+    @Bean
+    public static BeanPostProcessor replicaAwareJpaDialect() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof AbstractEntityManagerFactoryBean) {
+                    ((AbstractEntityManagerFactoryBean) bean).setJpaDialect(new ReplicaAwareJpaDialect());
+                }
+                return bean;
+            }
+        };
+    }
+
+    private HikariDataSource pool(DataSourceProperties properties, Environment environment, String name,
+                                  String url, String username, String password) {
+        HikariDataSource pool = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(pool));
+        pool.setPoolName(name);
+        return pool;
+    }
+}
@@ -0,0 +1,99 @@
+package ru.practicum.main_server.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Основная база, реплики и фоновая проверка их отставания. Реплика, отстающая больше max-lag-seconds
+ * или не отвечающая на запрос отставания, исключается из маршрутизации до следующей успешной проверки.
+ */
+@Slf4j
+public class ReadReplicas implements MeterBinder, AutoCloseable {
+    private final HikariDataSource primary;
+    private final List<Replica> replicas;
+    private final ReplicaRoutingDataSource routingDataSource;
+    private final String lagQuery;
+    private final double maxLagSeconds;
+    private final ScheduledExecutorService checker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "replica-lag-checker");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    ReadReplicas(HikariDataSource primary, List<Replica> replicas, String lagQuery, double maxLagSeconds,
+                 long checkIntervalMs) {
+        this.primary = primary;
+        this.replicas = replicas;
+        this.routingDataSource = new ReplicaRoutingDataSource(primary, replicas);
+        this.lagQuery = lagQuery;
+        this.maxLagSeconds = maxLagSeconds;
+        checker.scheduleWithFixedDelay(this::checkReplicas, 0, checkIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Пулы не являются бинами, поэтому метрики Hikari и отставания реплик регистрируются здесь
+     */
+    @Override
+    public void bindTo(MeterRegistry meterRegistry) {
+        MicrometerMetricsTrackerFactory trackerFactory = new MicrometerMetricsTrackerFactory(meterRegistry);
+        primary.setMetricsTrackerFactory(trackerFactory);
+        for (Replica replica : replicas) {
+            replica.getDataSource().setMetricsTrackerFactory(trackerFactory);
+            Gauge.builder("db.replica.lag", replica, Replica::getLagSeconds)
+                    .description("Отставание реплики в секундах, NaN если реплика не отвечает")
+                    .tag("replica", replica.getName())
+                    .baseUnit("seconds")
+                    .register(meterRegistry);
+            Gauge.builder("db.replica.available", replica, r -> r.isAvailable() ? 1 : 0)
+                    .description("Принимает ли реплика read-only транзакции")
+                    .tag("replica", replica.getName())
+                    .register(meterRegistry);
+        }
+    }
+
+    DataSource getRoutingDataSource() {
+        return routingDataSource;
+    }
+
+    List<Replica> getReplicas() {
+        return replicas;
+    }
+
+    void checkReplicas() {
+        for (Replica replica : replicas) {
+            boolean wasAvailable = replica.isAvailable();
+            try {
+                Double lag = new JdbcTemplate(replica.getDataSource()).queryForObject(lagQuery, Double.class);
+                double lagSeconds = lag == null ? 0 : lag;
+                replica.update(lagSeconds, lagSeconds <= maxLagSeconds);
+            } catch (RuntimeException e) {
+                replica.update(Double.NaN, false);
+                if (wasAvailable) {
+                    log.warn("ReadReplicas: реплика {} не отвечает: {}", replica.getName(), e.getMessage());
+                }
+            }
+            if (wasAvailable != replica.isAvailable()) {
+                log.info("ReadReplicas: реплика {} {}, отставание {} с", replica.getName(),
+                        replica.isAvailable() ? "включена" : "исключена", replica.getLagSeconds());
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        checker.shutdownNow();
+        replicas.forEach(replica -> replica.getDataSource().close());
+        primary.close();
+    }
+}
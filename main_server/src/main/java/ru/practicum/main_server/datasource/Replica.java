@@ -0,0 +1,40 @@
+package ru.practicum.main_server.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Реплика и ее последнее известное состояние. Пока проверка отставания не прошла, реплика недоступна
+ */
+class Replica {
+    private final String name;
+    private final HikariDataSource dataSource;
+
+    private volatile double lagSeconds = Double.NaN;
+    private volatile boolean available;
+
+    Replica(String name, HikariDataSource dataSource) {
+        this.name = name;
+        this.dataSource = dataSource;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    HikariDataSource getDataSource() {
+        return dataSource;
+    }
+
+    double getLagSeconds() {
+        return lagSeconds;
+    }
+
+    boolean isAvailable() {
+        return available;
+    }
+
+    void update(double lagSeconds, boolean available) {
+        this.lagSeconds = lagSeconds;
+        this.available = available;
+    }
+}
@@ -0,0 +1,46 @@
+package ru.practicum.main_server.datasource;
+
+import org.springframework.orm.jpa.vendor.HibernateJpaDialect;
+import org.springframework.transaction.TransactionDefinition;
+
+import javax.persistence.EntityManager;
+import java.sql.SQLException;
+
+/**
+ * Отмечает поток как read-only до того, как Hibernate возьмет соединение для транзакции, и снимает отметку
+ * после ее завершения. Вложенная транзакция (REQUIRES_NEW) восстанавливает отметку внешней.
+ */
+class ReplicaAwareJpaDialect extends HibernateJpaDialect {
+
+    @Override
+    public Object beginTransaction(EntityManager entityManager, TransactionDefinition definition)
+            throws SQLException {
+        Boolean previous = ReplicaRoutingDataSource.markReadOnly(definition.isReadOnly());
+        try {
+            return new RoutedTransactionData(super.beginTransaction(entityManager, definition), previous);
+        } catch (SQLException | RuntimeException e) {
+            ReplicaRoutingDataSource.restoreReadOnly(previous);
+            throw e;
+        }
+    }
+
+    @Override
+    public void cleanupTransaction(Object transactionData) {
+        RoutedTransactionData routed = (RoutedTransactionData) transactionData;
+        try {
+            super.cleanupTransaction(routed.delegate);
+        } finally {
+            ReplicaRoutingDataSource.restoreReadOnly(routed.previousReadOnly);
+        }
+    }
+
+    private static class RoutedTransactionData {
+        private final Object delegate;
+        private final Boolean previousReadOnly;
+
+        private RoutedTransactionData(Object delegate, Boolean previousReadOnly) {
+            this.delegate = delegate;
+            this.previousReadOnly = previousReadOnly;
+        }
+    }
+}
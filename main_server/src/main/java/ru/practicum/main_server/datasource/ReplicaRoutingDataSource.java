@@ -0,0 +1,66 @@
+package ru.practicum.main_server.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Read-only транзакции уходят на доступные реплики по кругу, все остальное и случай без доступных реплик -
+ * на основную базу. Флаг TransactionSynchronizationManager для выбора не годится: JpaTransactionManager
+ * выставляет его уже после того, как взял соединение, поэтому флаг ставит {@link ReplicaAwareJpaDialect}
+ * до начала транзакции.
+ */
+class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+    static final String PRIMARY = "primary";
+    private static final ThreadLocal<Boolean> READ_ONLY = new ThreadLocal<>();
+
+    private final List<Replica> replicas;
+    private final AtomicInteger next = new AtomicInteger();
+
+    ReplicaRoutingDataSource(DataSource primary, List<Replica> replicas) {
+        this.replicas = replicas;
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        replicas.forEach(replica -> targets.put(replica.getName(), replica.getDataSource()));
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    /**
+     * @return предыдущее значение флага, его нужно вернуть через {@link #restoreReadOnly(Boolean)}
+     */
+    static Boolean markReadOnly(boolean readOnly) {
+        Boolean previous = READ_ONLY.get();
+        READ_ONLY.set(readOnly);
+        return previous;
+    }
+
+    static void restoreReadOnly(Boolean previous) {
+        if (previous == null) {
+            READ_ONLY.remove();
+        } else {
+            READ_ONLY.set(previous);
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!Boolean.TRUE.equals(READ_ONLY.get())) {
+            return PRIMARY;
+        }
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.isAvailable()) {
+                return replica.getName();
+            }
+        }
+        return PRIMARY;
+    }
+}
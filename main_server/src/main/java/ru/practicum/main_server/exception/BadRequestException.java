@@ -1,10 +1,9 @@
 package ru.practicum.main_server.exception;
 
 /**
- * Исключение для 400 ошибки
+ * Исключение для ошибки 400. Стек не заполняется, см. {@link StacklessException}
  */
-public class BadRequestException extends RuntimeException {
-
+public class BadRequestException extends StacklessException {
     public BadRequestException(String message) {
         super(message);
     }
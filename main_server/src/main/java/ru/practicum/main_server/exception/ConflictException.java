@@ -1,9 +1,9 @@
 package ru.practicum.main_server.exception;
 
 /**
- * Исключение для ошибки 409
+ * Исключение для ошибки 409. Стек не заполняется, см. {@link StacklessException}
  */
-public class ConflictException extends RuntimeException {
+public class ConflictException extends StacklessException {
     public ConflictException(String message) {
         super(message);
     }
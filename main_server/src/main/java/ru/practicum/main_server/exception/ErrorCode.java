@@ -0,0 +1,13 @@
+package ru.practicum.main_server.exception;
+
+/**
+ * Машиночитаемый код ошибки в {@link ru.practicum.main_server.model.dto.ApiError}
+ */
+public enum ErrorCode {
+    BAD_REQUEST,
+    VALIDATION_FAILED,
+    FORBIDDEN,
+    NOT_FOUND,
+    CONFLICT,
+    INTERNAL_ERROR
+}
@@ -1,5 +1,9 @@
 package ru.practicum.main_server.exception;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -13,74 +17,84 @@ import javax.validation.ConstraintViolationException;
 import javax.validation.ValidationException;
 import java.io.UnsupportedEncodingException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.stream.Collectors;
 
+/**
+ * Ответы об ошибках. Стек исключения попадает в ApiError.errors только при
+ * ewm.errors.include-stack-trace=true (профиль debug); каждая ошибка считается в метрике
+ * api.errors с тегами типа исключения и статуса.
+ */
+@Slf4j
 @ControllerAdvice
 public class ErrorHandlingControllerAdvice {
-    @ExceptionHandler({BadRequestException.class,
-            UnsupportedEncodingException.class, MethodArgumentNotValidException.class})
-    public ResponseEntity<ApiError> handleException400(Exception e) {
-        ApiError apiError = new ApiError();
-        apiError.setMessage(e.getMessage());
-        apiError.setReason("Запрос составлен с ошибкой");
-        apiError.setStatus("BAD_REQUEST");
-        Arrays.stream(e.getStackTrace())
-                .map(StackTraceElement::toString)
-                .forEach(apiError.getErrors()::add);
-        apiError.setTimestamp(LocalDateTime.now());
-        return new ResponseEntity<>(apiError, HttpStatus.BAD_REQUEST);
+    private final MeterRegistry meterRegistry;
+    private final boolean includeStackTrace;
+
+    public ErrorHandlingControllerAdvice(MeterRegistry meterRegistry,
+                                         @Value("${ewm.errors.include-stack-trace:false}") boolean includeStackTrace) {
+        this.meterRegistry = meterRegistry;
+        this.includeStackTrace = includeStackTrace;
+    }
+
+    @ExceptionHandler(BadRequestException.class)
+    public ResponseEntity<ApiError> handleException400(BadRequestException e) {
+        return buildResponse(e, HttpStatus.BAD_REQUEST, ErrorCode.BAD_REQUEST, "Запрос составлен с ошибкой");
+    }
+
+    @ExceptionHandler({UnsupportedEncodingException.class, MethodArgumentNotValidException.class})
+    public ResponseEntity<ApiError> handleValidation400(Exception e) {
+        return buildResponse(e, HttpStatus.BAD_REQUEST, ErrorCode.VALIDATION_FAILED, "Запрос составлен с ошибкой");
     }
 
     @ExceptionHandler(ForbiddenException.class)
     public ResponseEntity<ApiError> handleException403(ForbiddenException e) {
-        ApiError apiError = new ApiError();
-        apiError.setMessage(e.getMessage());
-        apiError.setReason("Не выполнены условия для совершения операции");
-        apiError.setStatus("FORBIDDEN");
-        Arrays.stream(e.getStackTrace())
-                .map(StackTraceElement::toString)
-                .forEach(apiError.getErrors()::add);
-        apiError.setTimestamp(LocalDateTime.now());
-        return new ResponseEntity<>(apiError, HttpStatus.FORBIDDEN);
+        return buildResponse(e, HttpStatus.FORBIDDEN, ErrorCode.FORBIDDEN,
+                "Не выполнены условия для совершения операции");
     }
 
     @ExceptionHandler({EntityNotFoundException.class, NotFoundException.class})
     public ResponseEntity<ApiError> handleException404(Exception e) {
-        ApiError apiError = new ApiError();
-        apiError.setMessage(e.getMessage());
-        apiError.setReason("Объект не найден");
-        apiError.setStatus("NOT_FOUND");
-        Arrays.stream(e.getStackTrace())
-                .map(StackTraceElement::toString)
-                .forEach(apiError.getErrors()::add);
-        apiError.setTimestamp(LocalDateTime.now());
-        return new ResponseEntity<>(apiError, HttpStatus.NOT_FOUND);
+        return buildResponse(e, HttpStatus.NOT_FOUND, ErrorCode.NOT_FOUND, "Объект не найден");
     }
 
-    @ExceptionHandler({ConflictException.class, ConstraintViolationException.class, ValidationException.class})
-    public ResponseEntity<ApiError> handleException409(Exception e) {
-        ApiError apiError = new ApiError();
-        apiError.setMessage(e.getMessage());
-        apiError.setReason("Нарушение целостности данных");
-        apiError.setStatus("CONFLICT");
-        Arrays.stream(e.getStackTrace())
-                .map(StackTraceElement::toString)
-                .forEach(apiError.getErrors()::add);
-        apiError.setTimestamp(LocalDateTime.now());
-        return new ResponseEntity<>(apiError, HttpStatus.CONFLICT);
+    @ExceptionHandler(ConflictException.class)
+    public ResponseEntity<ApiError> handleException409(ConflictException e) {
+        return buildResponse(e, HttpStatus.CONFLICT, ErrorCode.CONFLICT, "Нарушение целостности данных");
+    }
+
+    @ExceptionHandler({ConstraintViolationException.class, ValidationException.class})
+    public ResponseEntity<ApiError> handleValidation409(Exception e) {
+        return buildResponse(e, HttpStatus.CONFLICT, ErrorCode.VALIDATION_FAILED, "Нарушение целостности данных");
     }
 
     @ResponseBody()
     @ExceptionHandler({InternalServerErrorException.class, RuntimeException.class})
     public ResponseEntity<ApiError> handleException500(RuntimeException e) {
-        ApiError apiError = new ApiError();
-        apiError.setMessage(e.getMessage());
-        apiError.setReason("Внутренняя ошибка сервера");
-        apiError.setStatus("INTERNAL_SERVER_ERROR");
-        Arrays.stream(e.getStackTrace())
-                .map(StackTraceElement::toString)
-                .forEach(apiError.getErrors()::add);
-        apiError.setTimestamp(LocalDateTime.now());
-        return new ResponseEntity<>(apiError, HttpStatus.INTERNAL_SERVER_ERROR);
+        log.error("ErrorHandlingControllerAdvice: внутренняя ошибка сервера", e);
+        return buildResponse(e, HttpStatus.INTERNAL_SERVER_ERROR, ErrorCode.INTERNAL_ERROR,
+                "Внутренняя ошибка сервера");
+    }
+
+    private ResponseEntity<ApiError> buildResponse(Exception e, HttpStatus status, ErrorCode code, String reason) {
+        Counter.builder("api.errors")
+                .description("Ответы с ошибкой по типу исключения")
+                .tag("exception", e.getClass().getSimpleName())
+                .tag("status", String.valueOf(status.value()))
+                .register(meterRegistry)
+                .increment();
+        ApiError apiError = ApiError.builder()
+                .code(code.name())
+                .message(e.getMessage())
+                .reason(reason)
+                .status(status.name())
+                .timestamp(LocalDateTime.now())
+                .errors(includeStackTrace
+                        ? Arrays.stream(e.getStackTrace()).map(StackTraceElement::toString)
+                        .collect(Collectors.toList())
+                        : new ArrayList<>())
+                .build();
+        return new ResponseEntity<>(apiError, status);
     }
 }
@@ -1,9 +1,9 @@
 package ru.practicum.main_server.exception;
 
 /**
- * Исключение для ошибки 403
+ * Исключение для ошибки 403. Стек не заполняется, см. {@link StacklessException}
  */
-public class ForbiddenException extends RuntimeException {
+public class ForbiddenException extends StacklessException {
     public ForbiddenException(String message) {
         super(message);
     }
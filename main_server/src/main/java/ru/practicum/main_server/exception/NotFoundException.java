@@ -1,9 +1,9 @@
 package ru.practicum.main_server.exception;
 
 /**
- * Исключение для ошибки 404
+ * Исключение для ошибки 404. Стек не заполняется, см. {@link StacklessException}
  */
-public class NotFoundException extends RuntimeException {
+public class NotFoundException extends StacklessException {
     public NotFoundException(String message) {
         super(message);
     }
@@ -0,0 +1,12 @@
+package ru.practicum.main_server.exception;
+
+/**
+ * Базовое исключение для ожидаемых ошибок бизнес-логики (400, 403, 404, 409). Такие ошибки описываются
+ * сообщением, а стек для них не нужен: fillInStackTrace не вызывается, поэтому создание исключения
+ * стоит как создание обычного объекта, даже когда боты перебирают несуществующие id.
+ */
+public abstract class StacklessException extends RuntimeException {
+    protected StacklessException(String message) {
+        super(message, null, false, false);
+    }
+}
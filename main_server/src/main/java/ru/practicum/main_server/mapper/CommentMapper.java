@@ -2,6 +2,7 @@ package ru.practicum.main_server.mapper;
 
 import ru.practicum.main_server.model.Comment;
 import ru.practicum.main_server.model.dto.CommentDto;
+import ru.practicum.main_server.repository.CommentRepository.CommentView;
 
 import java.time.LocalDateTime;
 
@@ -16,6 +17,11 @@ public class CommentMapper {
         return commentDto;
     }
 
+    public static CommentDto toCommentDto(CommentView comment) {
+        return new CommentDto(comment.getId(), comment.getText(), comment.getAuthorName(), comment.getCreated(),
+                comment.getState().toString());
+    }
+
     public static Comment toComment(CommentDto commentDto) {
         Comment comment = new Comment();
         comment.setId(commentDto.getId());
@@ -24,6 +24,7 @@ public class EventMapper {
                 .title(event.getTitle())
                 .confirmedRequests(event.getConfirmedRequests())
                 .views(event.getViews() == null ? 0 : event.getViews())
+                .comments(event.getApprovedComments())
                 .build();
     }
 
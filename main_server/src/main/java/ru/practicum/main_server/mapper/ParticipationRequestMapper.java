@@ -2,19 +2,28 @@ package ru.practicum.main_server.mapper;
 
 import lombok.experimental.UtilityClass;
 import ru.practicum.main_server.model.ParticipationRequest;
+import ru.practicum.main_server.model.Status;
 import ru.practicum.main_server.model.dto.ParticipationRequestDto;
 
+import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 
 @UtilityClass
 public class ParticipationRequestMapper {
     public static ParticipationRequestDto toParticipationRequestDto(ParticipationRequest participationRequest) {
+        return toParticipationRequestDto(participationRequest.getId(), participationRequest.getCreated(),
+                participationRequest.getEvent().getId(), participationRequest.getRequester().getId(),
+                participationRequest.getStatus());
+    }
+
+    public static ParticipationRequestDto toParticipationRequestDto(Long id, LocalDateTime created, Long eventId,
+                                                                    Long requesterId, Status status) {
         return ParticipationRequestDto.builder()
-                .id(participationRequest.getId())
-                .created(participationRequest.getCreated().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")))
-                .event(participationRequest.getEvent().getId())
-                .requester(participationRequest.getRequester().getId())
-                .status(participationRequest.getStatus().toString())
+                .id(id)
+                .created(created.format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")))
+                .event(eventId)
+                .requester(requesterId)
+                .status(status.toString())
                 .build();
     }
 }
@@ -1,9 +1,18 @@
 package ru.practicum.main_server.model;
 
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.NaturalId;
+import org.hibernate.annotations.NaturalIdCache;
 
 import javax.persistence.*;
 
+/**
+ * Справочник категорий. Читается почти при каждой операции с событиями, поэтому хранится
+ * во втором уровне кэша Hibernate вместе с кэшем поиска по имени
+ */
+
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
@@ -12,10 +21,15 @@ import javax.persistence.*;
 @Setter
 @ToString
 @Table(name = "categories")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@NaturalIdCache(region = "category_natural_id")
 public class Category {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "categories_id_seq")
+    @SequenceGenerator(name = "categories_id_seq", sequenceName = "categories_id_seq", allocationSize = 50)
     private Long id;
+    @NaturalId(mutable = true)
     @Column(name = "name", length = 100)
     private String name;
 }
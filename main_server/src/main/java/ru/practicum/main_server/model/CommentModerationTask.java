@@ -0,0 +1,25 @@
+package ru.practicum.main_server.model;
+
+import lombok.*;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Комментарий, ожидающий автоматической модерации. Строка удаляется в той же транзакции, в которой
+ * применяется решение, и вместе с комментарием
+ */
+@Getter
+@Setter
+@ToString
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "comment_moderation_queue")
+public class CommentModerationTask {
+    @Id
+    @Column(name = "comment_id")
+    private Long commentId;
+    @Column(name = "enqueued_at", nullable = false)
+    private LocalDateTime enqueuedAt;
+}
@@ -15,7 +15,8 @@ import java.time.LocalDateTime;
 @Table(name = "events")
 public class Event {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "events_id_seq")
+    @SequenceGenerator(name = "events_id_seq", sequenceName = "events_id_seq", allocationSize = 50)
     private Long id;
     @Column(name = "annotation", nullable = false)
     private String annotation;
@@ -43,6 +44,12 @@ public class Event {
     private State state;
     @Column(name = "title", length = 254, nullable = false)
     private String title;
+    /**
+     * Меняется только запросом {@link ru.practicum.main_server.repository.EventRepository#addApprovedComments},
+     * сохранение события не перезаписывает счетчик устаревшим значением
+     */
+    @Column(name = "approved_comments", insertable = false, updatable = false)
+    private long approvedComments;
     @Transient
     private Long confirmedRequests;
     @Transient
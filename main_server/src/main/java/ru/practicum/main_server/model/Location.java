@@ -1,6 +1,8 @@
 package ru.practicum.main_server.model;
 
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import javax.persistence.*;
 
@@ -12,9 +14,12 @@ import javax.persistence.*;
 @AllArgsConstructor
 @Entity
 @Table(name = "locations")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class Location {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "locations_id_seq")
+    @SequenceGenerator(name = "locations_id_seq", sequenceName = "locations_id_seq", allocationSize = 50)
     private Long id;
     @Column(name = "lat", nullable = false)
     private float lat;
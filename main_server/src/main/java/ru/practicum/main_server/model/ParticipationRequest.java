@@ -15,7 +15,8 @@ import java.time.LocalDateTime;
 @Table(name = "requests")
 public class ParticipationRequest {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "requests_id_seq")
+    @SequenceGenerator(name = "requests_id_seq", sequenceName = "requests_id_seq", allocationSize = 50)
     private Long id;
     @Column(name = "created", nullable = false)
     private LocalDateTime created;
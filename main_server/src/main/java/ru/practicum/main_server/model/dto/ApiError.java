@@ -1,5 +1,6 @@
 package ru.practicum.main_server.model.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -14,7 +15,13 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 public class ApiError {
+    /**
+     * Стек исключения, заполняется только в профиле debug
+     */
+    @JsonInclude(JsonInclude.Include.NON_EMPTY)
+    @Builder.Default
     private List<String> errors = new ArrayList<>();
+    private String code;
     private String message;
     private String reason;
     private String status;
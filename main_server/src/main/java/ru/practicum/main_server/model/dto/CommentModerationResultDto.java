@@ -0,0 +1,22 @@
+package ru.practicum.main_server.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.practicum.main_server.model.CommentState;
+
+/**
+ * Итог модерации одного комментария из пачки: state - состояние после запроса (null, если комментария нет),
+ * reason - почему комментарий не изменен
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CommentModerationResultDto {
+    private Long commentId;
+    private boolean updated;
+    private CommentState state;
+    private String reason;
+}
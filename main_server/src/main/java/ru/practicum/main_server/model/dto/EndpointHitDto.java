@@ -14,4 +14,5 @@ public class EndpointHitDto {
     private String uri;
     private String ip;
     private String timestamp;
+    private String userAgent;
 }
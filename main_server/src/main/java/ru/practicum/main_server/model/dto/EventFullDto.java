@@ -1,10 +1,13 @@
 package ru.practicum.main_server.model.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.Setter;
 import ru.practicum.main_server.model.Location;
 
+import java.util.List;
+
 @Builder
 @Getter
 @Setter
@@ -25,4 +28,6 @@ public class EventFullDto {
     private String state;
     private String title;
     private Integer views;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<ViewsBucketDto> viewsSeries;
 }
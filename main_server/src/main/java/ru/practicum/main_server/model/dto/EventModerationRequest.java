@@ -0,0 +1,21 @@
+package ru.practicum.main_server.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventModerationRequest {
+    @NotEmpty
+    @Size(max = 1000)
+    private List<@NotNull Long> eventIds;
+}
@@ -0,0 +1,22 @@
+package ru.practicum.main_server.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.practicum.main_server.model.State;
+
+/**
+ * Итог модерации одного события из пачки: state - состояние после запроса (null, если события нет),
+ * reason - почему событие не изменено
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventModerationResultDto {
+    private Long eventId;
+    private boolean updated;
+    private State state;
+    private String reason;
+}
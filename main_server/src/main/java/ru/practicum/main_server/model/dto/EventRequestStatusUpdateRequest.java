@@ -0,0 +1,27 @@
+package ru.practicum.main_server.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.practicum.main_server.model.Status;
+
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+import java.util.List;
+
+/**
+ * Новый статус для заявок на участие в событии: CONFIRMED или REJECTED
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventRequestStatusUpdateRequest {
+    @NotEmpty
+    @Size(max = 1000)
+    private List<@NotNull Long> requestIds;
+    @NotNull
+    private Status status;
+}
@@ -5,6 +5,8 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.util.List;
+
 @Data
 @Builder
 @NoArgsConstructor
@@ -20,4 +22,12 @@ public class EventShortDto {
     private boolean paid;
     private String title;
     private Integer views;
+    /**
+     * Количество одобренных комментариев
+     */
+    private Long comments;
+    /**
+     * Последние одобренные комментарии, заполняются только по запросу
+     */
+    private List<CommentDto> lastComments;
 }
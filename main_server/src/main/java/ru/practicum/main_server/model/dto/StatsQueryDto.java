@@ -0,0 +1,20 @@
+package ru.practicum.main_server.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StatsQueryDto {
+    private String start;
+    private String end;
+    private List<String> uris;
+    private String uriPrefix;
+    private boolean unique;
+}
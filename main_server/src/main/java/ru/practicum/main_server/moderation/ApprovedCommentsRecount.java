@@ -0,0 +1,64 @@
+package ru.practicum.main_server.moderation;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import ru.practicum.main_server.repository.EventRepository;
+import ru.practicum.main_server.service.admin_service.AdminCommentService;
+
+/**
+ * Пересчет счетчика одобренных комментариев по таблице comments после старта узла, вместо одного UPDATE
+ * в миграции V3. События обходятся диапазонами id по batch-size, каждый диапазон - отдельная короткая
+ * транзакция, поэтому модерация и списки событий не ждут конца пересчета. Включается свойством
+ * ewm.comments.recount-approved на одном узле
+ */
+@Slf4j
+@Lazy(false)
+@Component
+public class ApprovedCommentsRecount {
+    private final AdminCommentService commentService;
+    private final EventRepository eventRepository;
+    private final boolean enabled;
+    private final int batchSize;
+
+    public ApprovedCommentsRecount(AdminCommentService commentService, EventRepository eventRepository,
+                                   @Value("${ewm.comments.recount-approved:false}") boolean enabled,
+                                   @Value("${ewm.comments.recount-batch-size:500}") int batchSize) {
+        this.commentService = commentService;
+        this.eventRepository = eventRepository;
+        this.enabled = enabled;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        Thread thread = new Thread(this::recount, "approved-comments-recount");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * @return число пересчитанных событий
+     */
+    public long recount() {
+        long maxId = eventRepository.findMaxId().orElse(0L);
+        long recounted = 0;
+        try {
+            for (long fromId = 0; fromId < maxId; fromId += batchSize) {
+                recounted += commentService.recountApprovedComments(fromId, Math.min(fromId + batchSize, maxId));
+            }
+        } catch (RuntimeException e) {
+            log.error("ApprovedCommentsRecount: пересчет прерван после {} событий, его можно запустить снова",
+                    recounted, e);
+            return recounted;
+        }
+        log.info("ApprovedCommentsRecount: счетчик одобренных комментариев пересчитан для {} событий", recounted);
+        return recounted;
+    }
+}
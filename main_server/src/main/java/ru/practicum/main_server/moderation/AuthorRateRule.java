@@ -0,0 +1,64 @@
+package ru.practicum.main_server.moderation;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.main_server.repository.CommentRepository;
+import ru.practicum.main_server.repository.CommentRepository.AuthorActivity;
+import ru.practicum.main_server.repository.CommentRepository.ModerationCandidate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Не больше author-rate.max комментариев автора за author-rate.window-seconds, считая сам комментарий и
+ * комментарии во всех состояниях. Время комментариев всех авторов пачки читается одним запросом, только
+ * за промежуток от первого комментария пачки минус окно до последнего
+ */
+@Component
+public class AuthorRateRule implements ModerationRule {
+    private final CommentRepository commentRepository;
+    private final int max;
+    private final Duration window;
+
+    public AuthorRateRule(CommentRepository commentRepository,
+                          @Value("${ewm.comments.moderation.author-rate.max:5}") int max,
+                          @Value("${ewm.comments.moderation.author-rate.window-seconds:60}") long windowSeconds) {
+        this.commentRepository = commentRepository;
+        this.max = max;
+        this.window = Duration.ofSeconds(windowSeconds);
+    }
+
+    @Override
+    public Map<Long, String> check(List<ModerationCandidate> comments) {
+        Map<Long, String> rejected = new HashMap<>();
+        if (comments.isEmpty()) {
+            return rejected;
+        }
+        Set<Long> authors = comments.stream().map(ModerationCandidate::getAuthorId).collect(Collectors.toSet());
+        LocalDateTime from = comments.stream().map(ModerationCandidate::getCreated).min(Comparator.naturalOrder())
+                .get();
+        LocalDateTime to = comments.stream().map(ModerationCandidate::getCreated).max(Comparator.naturalOrder())
+                .get();
+        Map<Long, List<LocalDateTime>> activity = commentRepository.findAuthorActivity(authors, from.minus(window), to)
+                .stream()
+                .collect(Collectors.groupingBy(AuthorActivity::getAuthorId,
+                        Collectors.mapping(AuthorActivity::getCreated, Collectors.toList())));
+        for (ModerationCandidate comment : comments) {
+            LocalDateTime windowStart = comment.getCreated().minus(window);
+            long count = activity.getOrDefault(comment.getAuthorId(), List.of()).stream()
+                    .filter(created -> created.isAfter(windowStart) && !created.isAfter(comment.getCreated()))
+                    .count();
+            if (count > max) {
+                rejected.put(comment.getId(), String.format("%d комментариев автора за %d с", count,
+                        window.getSeconds()));
+            }
+        }
+        return rejected;
+    }
+}
@@ -0,0 +1,49 @@
+package ru.practicum.main_server.moderation;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import ru.practicum.main_server.repository.CommentRepository.ModerationCandidate;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Запрещенные слова из ewm.comments.moderation.banned-words (через запятую). Сравниваются целые слова
+ * без учета регистра, поэтому запрещенное слово внутри другого слова не срабатывает
+ */
+@Component
+public class BannedWordsRule implements ModerationRule {
+    private static final Pattern NOT_LETTERS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final Set<String> bannedWords;
+
+    public BannedWordsRule(@Value("${ewm.comments.moderation.banned-words:}") String bannedWords) {
+        this.bannedWords = StringUtils.commaDelimitedListToSet(bannedWords).stream()
+                .map(word -> word.trim().toLowerCase(Locale.ROOT))
+                .filter(word -> !word.isEmpty())
+                .collect(Collectors.toSet());
+    }
+
+    @Override
+    public Map<Long, String> check(List<ModerationCandidate> comments) {
+        Map<Long, String> rejected = new HashMap<>();
+        if (bannedWords.isEmpty()) {
+            return rejected;
+        }
+        for (ModerationCandidate comment : comments) {
+            for (String word : NOT_LETTERS.split(comment.getText().toLowerCase(Locale.ROOT))) {
+                if (bannedWords.contains(word)) {
+                    rejected.put(comment.getId(), "запрещенное слово " + word);
+                    break;
+                }
+            }
+        }
+        return rejected;
+    }
+}
@@ -0,0 +1,36 @@
+package ru.practicum.main_server.moderation;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.main_server.repository.CommentRepository.ModerationCandidate;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Длина текста без пробелов по краям в пределах [min-length, max-length]
+ */
+@Component
+public class CommentLengthRule implements ModerationRule {
+    private final int minLength;
+    private final int maxLength;
+
+    public CommentLengthRule(@Value("${ewm.comments.moderation.min-length:2}") int minLength,
+                             @Value("${ewm.comments.moderation.max-length:500}") int maxLength) {
+        this.minLength = minLength;
+        this.maxLength = maxLength;
+    }
+
+    @Override
+    public Map<Long, String> check(List<ModerationCandidate> comments) {
+        Map<Long, String> rejected = new HashMap<>();
+        for (ModerationCandidate comment : comments) {
+            int length = comment.getText().trim().length();
+            if (length < minLength || length > maxLength) {
+                rejected.put(comment.getId(), String.format("длина %d вне [%d, %d]", length, minLength, maxLength));
+            }
+        }
+        return rejected;
+    }
+}
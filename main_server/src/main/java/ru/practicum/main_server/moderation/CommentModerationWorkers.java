@@ -0,0 +1,95 @@
+package ru.practicum.main_server.moderation;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import ru.practicum.main_server.service.admin_service.CommentAutoModerationService;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Пул обработчиков очереди автомодерации. Каждый обработчик забирает пачки, пока они приходят полными,
+ * и засыпает на poll-interval-ms, когда очередь опустела. Пропускная способность растет с числом
+ * обработчиков на узле и числом узлов; workers=0 выключает автомодерацию на узле. Обработчики стартуют
+ * по ApplicationReadyEvent, когда контекст полностью поднят, а не посреди его инициализации
+ */
+@Slf4j
+@Lazy(false)
+@Component
+public class CommentModerationWorkers {
+    private final CommentAutoModerationService moderationService;
+    private final int workers;
+    private final int batchSize;
+    private final long pollIntervalMs;
+    private final ExecutorService executor;
+
+    private volatile boolean running = true;
+
+    public CommentModerationWorkers(CommentAutoModerationService moderationService,
+                                    @Value("${ewm.comments.moderation.workers:2}") int workers,
+                                    @Value("${ewm.comments.moderation.batch-size:100}") int batchSize,
+                                    @Value("${ewm.comments.moderation.poll-interval-ms:500}") long pollIntervalMs) {
+        this.moderationService = moderationService;
+        this.workers = workers;
+        this.batchSize = batchSize;
+        this.pollIntervalMs = pollIntervalMs;
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(Math.max(1, workers), runnable -> {
+            Thread thread = new Thread(runnable, "comment-moderation-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    void start() {
+        for (int i = 0; i < workers; i++) {
+            executor.execute(this::work);
+        }
+        log.info("CommentModerationWorkers: обработчиков {}, пачка {}", workers, batchSize);
+    }
+
+    /**
+     * Обработчик дожидается конца текущей пачки: прерывание посреди транзакции только откатило бы ее
+     */
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        executor.shutdown();
+        if (!executor.awaitTermination(pollIntervalMs + TimeUnit.SECONDS.toMillis(10), TimeUnit.MILLISECONDS)) {
+            log.warn("CommentModerationWorkers: обработчики не завершились, очередь будет дообработана позже");
+        }
+    }
+
+    private void work() {
+        while (running) {
+            try {
+                if (moderationService.processBatch(batchSize) < batchSize) {
+                    TimeUnit.MILLISECONDS.sleep(pollIntervalMs);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("CommentModerationWorkers: ошибка обработки пачки, задачи вернутся в очередь", e);
+                pause();
+            }
+        }
+    }
+
+    private void pause() {
+        try {
+            TimeUnit.MILLISECONDS.sleep(pollIntervalMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+}
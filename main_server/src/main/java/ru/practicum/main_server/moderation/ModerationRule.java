@@ -0,0 +1,19 @@
+package ru.practicum.main_server.moderation;
+
+import ru.practicum.main_server.repository.CommentRepository.ModerationCandidate;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Правило автомодерации комментариев. Все бины-правила проверяют каждую пачку, комментарий отклоняется,
+ * если его отклонило хотя бы одно правило, иначе одобряется
+ */
+public interface ModerationRule {
+    /**
+     * Проверяет пачку целиком, чтобы правилу, которому нужны данные из базы, хватало одного запроса на пачку
+     *
+     * @return причины отклонения по id комментария, пропущенные правилом комментарии в ответ не попадают
+     */
+    Map<Long, String> check(List<ModerationCandidate> comments);
+}
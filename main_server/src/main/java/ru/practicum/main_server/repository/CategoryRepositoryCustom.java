@@ -0,0 +1,12 @@
+package ru.practicum.main_server.repository;
+
+import ru.practicum.main_server.model.Category;
+
+import java.util.Optional;
+
+public interface CategoryRepositoryCustom {
+    /**
+     * Поиск категории по натуральному ключу (имени) через кэш натуральных ключей Hibernate
+     */
+    Optional<Category> findByNaturalName(String name);
+}
@@ -0,0 +1,20 @@
+package ru.practicum.main_server.repository;
+
+import org.hibernate.Session;
+import ru.practicum.main_server.model.Category;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.Optional;
+
+public class CategoryRepositoryImpl implements CategoryRepositoryCustom {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Optional<Category> findByNaturalName(String name) {
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(Category.class)
+                .loadOptional(name);
+    }
+}
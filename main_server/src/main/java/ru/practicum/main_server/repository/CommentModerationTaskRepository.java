@@ -0,0 +1,40 @@
+package ru.practicum.main_server.repository;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import ru.practicum.main_server.model.CommentModerationTask;
+
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface CommentModerationTaskRepository extends JpaRepository<CommentModerationTask, Long> {
+    /**
+     * Забирает самые старые задачи, блокируя их до конца транзакции. Таймаут -2 (LockOptions.SKIP_LOCKED)
+     * Hibernate превращает в FOR UPDATE SKIP LOCKED: задачи, занятые другими обработчиками, пропускаются,
+     * а не ждут их коммита. Диалекты без SKIP LOCKED (H2) получают обычный FOR UPDATE
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "javax.persistence.lock.timeout", value = "-2"))
+    @Query("select t from CommentModerationTask t order by t.enqueuedAt, t.commentId")
+    List<CommentModerationTask> claim(Pageable pageable);
+
+    /**
+     * Вставка без предварительного select, который делает save для сущности с заданным id. Перед ней
+     * сбрасывается контекст, чтобы INSERT самого комментария ушел раньше строки очереди со ссылкой на него
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "insert into comment_moderation_queue (comment_id, enqueued_at) values (:commentId, :enqueuedAt)",
+            nativeQuery = true)
+    void enqueue(Long commentId, LocalDateTime enqueuedAt);
+
+    @Modifying(flushAutomatically = true)
+    @Query("delete from CommentModerationTask t where t.commentId in :commentIds")
+    int deleteTasks(Collection<Long> commentIds);
+}
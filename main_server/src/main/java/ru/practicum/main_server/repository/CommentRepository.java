@@ -1,16 +1,139 @@
 package ru.practicum.main_server.repository;
 
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import ru.practicum.main_server.model.Comment;
 import ru.practicum.main_server.model.CommentState;
 
+import javax.persistence.LockModeType;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
+    int MAX_PAGE_SIZE = 100;
 
-    @Query("select c from Comment c where c.state = ?1 and c.event.id = ?2")
-    List<Comment> findByStateAndEventId(CommentState state, Long eventId);
+    /**
+     * Страница комментариев события в порядке created, id (keyset-пагинация по индексу
+     * idx_comments_event_state_created): следующая страница начинается после последнего комментария предыдущей,
+     * поэтому глубокие страницы не дороже первой. Событие и автор не загружаются, из автора берется только имя
+     *
+     * @param afterCreated created последнего комментария предыдущей страницы, null - первая страница
+     * @param afterId      id последнего комментария предыдущей страницы, различает комментарии с одинаковым created;
+     *                     null - страница начинается после всех комментариев с этим created
+     */
+    default List<CommentView> findPage(Long eventId, Collection<CommentState> states, LocalDateTime afterCreated,
+                                       Long afterId, int size) {
+        Pageable page = PageRequest.of(0, Math.max(1, Math.min(size, MAX_PAGE_SIZE)));
+        if (afterCreated == null) {
+            return findFirstPage(eventId, states, page);
+        }
+        return findPageAfter(eventId, states, afterCreated, afterId == null ? Long.MAX_VALUE : afterId, page);
+    }
 
-    List<Comment> findByEventId(Long eventId);
+    @Query("select c.id as id, c.text as text, a.name as authorName, c.created as created, c.state as state " +
+            "from Comment c join c.author a " +
+            "where c.event.id = :eventId and c.state in :states " +
+            "order by c.created, c.id")
+    List<CommentView> findFirstPage(Long eventId, Collection<CommentState> states, Pageable pageable);
+
+    @Query("select c.id as id, c.text as text, a.name as authorName, c.created as created, c.state as state " +
+            "from Comment c join c.author a " +
+            "where c.event.id = :eventId and c.state in :states " +
+            "and (c.created > :afterCreated or (c.created = :afterCreated and c.id > :afterId)) " +
+            "order by c.created, c.id")
+    List<CommentView> findPageAfter(Long eventId, Collection<CommentState> states, LocalDateTime afterCreated,
+                                    Long afterId, Pageable pageable);
+
+    /**
+     * Последние k комментариев каждого из событий одним запросом: номер строки внутри события считается оконной
+     * функцией по idx_comments_event_state_created. Строки упорядочены по событию, внутри события - от новых
+     */
+    @Query(value = "select l.id as id, l.event_id as eventId, l.text as text, u.name as authorName, " +
+            "l.created as created, l.state as state from (" +
+            "select c.id, c.event_id, c.author_id, c.text, c.created, c.state, " +
+            "row_number() over (partition by c.event_id order by c.created desc, c.id desc) as rn " +
+            "from comments c where c.event_id in :eventIds and c.state = :state) l " +
+            "join users u on u.id = l.author_id " +
+            "where l.rn <= :k order by l.event_id, l.rn",
+            nativeQuery = true)
+    List<EventCommentView> findLatestForEvents(Collection<Long> eventIds, String state, int k);
+
+    /**
+     * Комментарий, заблокированный до конца транзакции: удаление и правка автором не пересекаются
+     * с модерацией и не меняют счетчик одобренных комментариев дважды
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select c from Comment c where c.id = :id")
+    Optional<Comment> findByIdForUpdate(Long id);
+
+    /**
+     * Блокирует комментарии до конца транзакции в порядке id и возвращает их состояние
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select c.id as id, c.event.id as eventId, c.state as state from Comment c where c.id in :ids order by c.id")
+    List<ModerationState> lockForModeration(Collection<Long> ids);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Comment c set c.state = :state where c.id in :ids and c.state <> :state")
+    int updateState(Collection<Long> ids, CommentState state);
+
+    /**
+     * Комментарии из пачки автомодерации, которые все еще ждут решения: отмодерированные вручную пропускаются
+     */
+    @Query("select c.id as id, c.author.id as authorId, c.text as text, c.created as created " +
+            "from Comment c where c.id in :ids and c.state = :state")
+    List<ModerationCandidate> findModerationCandidates(Collection<Long> ids, CommentState state);
+
+    /**
+     * Время комментариев авторов в промежутке [from, to], диапазон по индексу idx_comments_author_created
+     */
+    @Query("select c.author.id as authorId, c.created as created from Comment c " +
+            "where c.author.id in :authorIds and c.created between :from and :to")
+    List<AuthorActivity> findAuthorActivity(Collection<Long> authorIds, LocalDateTime from, LocalDateTime to);
+
+    interface CommentView {
+        Long getId();
+
+        String getText();
+
+        String getAuthorName();
+
+        LocalDateTime getCreated();
+
+        CommentState getState();
+    }
+
+    interface EventCommentView extends CommentView {
+        Long getEventId();
+    }
+
+    interface ModerationState {
+        Long getId();
+
+        Long getEventId();
+
+        CommentState getState();
+    }
+
+    interface ModerationCandidate {
+        Long getId();
+
+        Long getAuthorId();
+
+        String getText();
+
+        LocalDateTime getCreated();
+    }
+
+    interface AuthorActivity {
+        Long getAuthorId();
+
+        LocalDateTime getCreated();
+    }
 }
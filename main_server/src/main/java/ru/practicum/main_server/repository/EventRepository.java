@@ -3,12 +3,17 @@ package ru.practicum.main_server.repository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import ru.practicum.main_server.model.Event;
 import ru.practicum.main_server.model.State;
 
+import javax.persistence.LockModeType;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface EventRepository extends JpaRepository<Event, Long> {
 
@@ -39,5 +44,67 @@ public interface EventRepository extends JpaRepository<Event, Long> {
 
     @Query("select (count(e) > 0) from Event e where e.id = ?1 and e.state = ?2")
     boolean existsByIdAndState(Long eventId, State state);
-}
 
+    /**
+     * Блокирует события до конца транзакции и возвращает их состояние без загрузки сущностей.
+     * Строки блокируются в порядке id, чтобы встречные пачки модерации не взаимоблокировались
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select e.id as id, e.state as state, e.eventDate as eventDate from Event e " +
+            "where e.id in :ids order by e.id")
+    List<ModerationState> lockForModeration(Collection<Long> ids);
+
+    /**
+     * Событие с блокировкой строки до конца транзакции: подтверждения заявок на одно событие идут по очереди,
+     * и лимит участников не превышается
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select e from Event e where e.id = :id")
+    Optional<Event> findByIdForUpdate(Long id);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Event e set e.state = :published, e.publishedOn = :publishedOn " +
+            "where e.id in :ids and e.state = :pending and e.eventDate > :minEventDate")
+    int publishPending(Collection<Long> ids, LocalDateTime publishedOn, LocalDateTime minEventDate,
+                       State pending, State published);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Event e set e.state = :canceled where e.id in :ids and e.state = :pending")
+    int rejectPending(Collection<Long> ids, State pending, State canceled);
+
+    @Modifying(flushAutomatically = true)
+    @Query("update Event e set e.approvedComments = e.approvedComments + :delta where e.id = :id")
+    int addApprovedComments(Long id, long delta);
+
+    /**
+     * Одна и та же разница для нескольких событий. Строки лучше заблокировать заранее через
+     * {@link #lockForModeration}: порядок блокировок одного update не задан
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("update Event e set e.approvedComments = e.approvedComments + :delta where e.id in :ids")
+    int addApprovedComments(Collection<Long> ids, long delta);
+
+    @Query("select max(e.id) from Event e")
+    Optional<Long> findMaxId();
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select e.id from Event e where e.id > :fromId and e.id <= :toId order by e.id")
+    List<Long> lockRange(long fromId, long toId);
+
+    /**
+     * Счетчик одобренных комментариев заново по таблице comments для событий с id в промежутке (fromId, toId]
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "update events set approved_comments = (select count(*) from comments c " +
+            "where c.event_id = events.id and c.state = 'APPROVED') where id > :fromId and id <= :toId",
+            nativeQuery = true)
+    int recountApprovedComments(long fromId, long toId);
+
+    interface ModerationState {
+        Long getId();
+
+        State getState();
+
+        LocalDateTime getEventDate();
+    }
+}
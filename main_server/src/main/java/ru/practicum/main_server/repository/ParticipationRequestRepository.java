@@ -1,12 +1,15 @@
 package ru.practicum.main_server.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import ru.practicum.main_server.model.Event;
 import ru.practicum.main_server.model.ParticipationRequest;
 import ru.practicum.main_server.model.Status;
 import ru.practicum.main_server.model.User;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface ParticipationRequestRepository extends JpaRepository<ParticipationRequest, Long> {
@@ -23,4 +26,27 @@ public interface ParticipationRequestRepository extends JpaRepository<Participat
     List<ParticipationRequest> findByStatusAndEvent(Status status, List<Event> events);
 
     Long countByEventIdAndStatus(Long eventId, Status status);
+
+    /**
+     * Заявки события с указанным статусом из списка id в порядке подачи, без загрузки события и пользователя
+     */
+    @Query("select r.id as id, r.created as created, r.requester.id as requesterId from Request r " +
+            "where r.event.id = :eventId and r.status = :status and r.id in :ids order by r.created, r.id")
+    List<RequestView> findViews(Long eventId, Status status, Collection<Long> ids);
+
+    @Query("select r.id as id, r.created as created, r.requester.id as requesterId from Request r " +
+            "where r.event.id = :eventId and r.status = :status order by r.created, r.id")
+    List<RequestView> findViews(Long eventId, Status status);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Request r set r.status = :status where r.id in :ids and r.status = :current")
+    int updateStatus(Collection<Long> ids, Status current, Status status);
+
+    interface RequestView {
+        Long getId();
+
+        LocalDateTime getCreated();
+
+        Long getRequesterId();
+    }
 }
@@ -2,15 +2,18 @@ package ru.practicum.main_server.service.admin_service;
 
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.main_server.cache.CachedEntity;
+import ru.practicum.main_server.cache.EntityChangedEvent;
+import ru.practicum.main_server.exception.ConflictException;
+import ru.practicum.main_server.exception.NotFoundException;
 import ru.practicum.main_server.model.Category;
 import ru.practicum.main_server.model.dto.CategoryDto;
 import ru.practicum.main_server.model.dto.NewCategoryDto;
 import ru.practicum.main_server.repository.CategoryRepository;
 
-import javax.persistence.EntityNotFoundException;
-
 import static ru.practicum.main_server.mapper.CategoryMapper.*;
 
 @Slf4j
@@ -18,34 +21,54 @@ import static ru.practicum.main_server.mapper.CategoryMapper.*;
 @Transactional
 public class AdminCategoryService {
     private final CategoryRepository categoryRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
-    public AdminCategoryService(CategoryRepository categoryRepository) {
+    public AdminCategoryService(CategoryRepository categoryRepository, ApplicationEventPublisher eventPublisher) {
         this.categoryRepository = categoryRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     public CategoryDto createCategory(NewCategoryDto newCategoryDto) {
+        checkNameIsFree(newCategoryDto.getName(), null);
         Category category = toCategoryFromNewCategoryDto(newCategoryDto);
+        category = categoryRepository.save(category);
+        eventPublisher.publishEvent(new EntityChangedEvent(CachedEntity.CATEGORY, category.getId()));
         log.info("AdminCategoryService: создание категории с именем {} прошло успешно", newCategoryDto.getName());
-        return toCategoryDto(categoryRepository.save(category));
+        return toCategoryDto(category);
     }
 
+    /**
+     * Изменение идет через сессию Hibernate, поэтому запись категории и ее имени во втором уровне кэша
+     * обновляется после коммита без отдельного сброса. Кэши других узлов сбрасываются по {@link EntityChangedEvent}
+     */
     public CategoryDto updateCategory(CategoryDto categoryDto) {
         log.info("AdminCategoryService: обновление категории {}", categoryDto);
-        checkCategoryInDb(categoryDto.getId());
-        return toCategoryDto(categoryRepository.save(toCategoryFromCategoryDto(categoryDto)));
+        Category category = getCategoryFromDbOrThrow(categoryDto.getId());
+        checkNameIsFree(categoryDto.getName(), category.getId());
+        category.setName(categoryDto.getName());
+        eventPublisher.publishEvent(new EntityChangedEvent(CachedEntity.CATEGORY, category.getId()));
+        return toCategoryDto(category);
     }
 
     public void deleteCategory(long id) {
         log.info("AdminCategoryService: удаление категории по id={}", id);
-        checkCategoryInDb(id);
-        categoryRepository.deleteById(id);
+        categoryRepository.delete(getCategoryFromDbOrThrow(id));
+        eventPublisher.publishEvent(new EntityChangedEvent(CachedEntity.CATEGORY, id));
+    }
+
+    private Category getCategoryFromDbOrThrow(long id) {
+        return categoryRepository.findById(id)
+                .orElseThrow(() -> new NotFoundException(
+                        String.format("CategoryService: категории с id=%d нет в базе", id)));
     }
 
-    private void checkCategoryInDb(long id) {
-        if (!categoryRepository.existsById(id)) {
-            throw new EntityNotFoundException(String.format("CategoryService: категории с id=%d нет в базе", id));
-        }
-        log.info("AdminCategoryService: проверка существования категории с id={} прошла успешно", id);
+    private void checkNameIsFree(String name, Long ownId) {
+        categoryRepository.findByNaturalName(name)
+                .filter(existing -> !existing.getId().equals(ownId))
+                .ifPresent(existing -> {
+                    throw new ConflictException(
+                            String.format("AdminCategoryService: категория с именем %s уже существует", name));
+                });
     }
 }
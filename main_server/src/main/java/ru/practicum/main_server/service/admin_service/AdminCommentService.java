@@ -9,9 +9,21 @@ import ru.practicum.main_server.mapper.CommentMapper;
 import ru.practicum.main_server.model.Comment;
 import ru.practicum.main_server.model.CommentState;
 import ru.practicum.main_server.model.dto.CommentDto;
+import ru.practicum.main_server.model.dto.CommentModerationResultDto;
 import ru.practicum.main_server.repository.CommentRepository;
+import ru.practicum.main_server.repository.CommentRepository.ModerationState;
+import ru.practicum.main_server.repository.EventRepository;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import static ru.practicum.main_server.model.CommentState.APPROVED;
@@ -22,35 +34,123 @@ import static ru.practicum.main_server.model.CommentState.REJECTED;
 @Transactional
 public class AdminCommentService {
     private final CommentRepository commentRepository;
+    private final EventRepository eventRepository;
 
     @Autowired
-    public AdminCommentService(CommentRepository commentRepository) {
+    public AdminCommentService(CommentRepository commentRepository, EventRepository eventRepository) {
         this.commentRepository = commentRepository;
+        this.eventRepository = eventRepository;
     }
 
-    public List<CommentDto> readComments(CommentState state, long eventId) {
-        return commentRepository.findByStateAndEventId(state, eventId).stream().map(CommentMapper::toCommentDto)
+    /**
+     * Страница комментариев события в состоянии state, см. {@link CommentRepository#findPage}
+     */
+    public List<CommentDto> readComments(CommentState state, long eventId, LocalDateTime afterCreated, Long afterId,
+                                         int size) {
+        return commentRepository.findPage(eventId, EnumSet.of(state), afterCreated, afterId, size).stream()
+                .map(CommentMapper::toCommentDto)
                 .collect(Collectors.toList());
     }
 
     public void deleteComment(long commentId) {
-        commentRepository.delete(getCommentFromDbOrThrow(commentId));
+        Comment comment = commentRepository.findByIdForUpdate(commentId).orElseThrow(() -> new NotFoundException(
+                String.format("AdminCommentService: комментария по id=%d нет в базе", commentId)));
+        if (comment.getState() == APPROVED) {
+            eventRepository.addApprovedComments(comment.getEvent().getId(), -1);
+        }
+        commentRepository.delete(comment);
     }
 
     public CommentDto rejectComment(long commentId) {
-        Comment comment = getCommentFromDbOrThrow(commentId);
-        comment.setState(REJECTED);
-        return CommentMapper.toCommentDto(commentRepository.save(comment));
+        return moderate(commentId, REJECTED);
     }
 
     public CommentDto approveComment(long commentId) {
-        Comment comment = getCommentFromDbOrThrow(commentId);
-        comment.setState(APPROVED);
-        return CommentMapper.toCommentDto(commentRepository.save(comment));
+        return moderate(commentId, APPROVED);
+    }
+
+    public List<CommentModerationResultDto> approveComments(List<Long> commentIds) {
+        return moderate(commentIds, APPROVED);
+    }
+
+    public List<CommentModerationResultDto> rejectComments(List<Long> commentIds) {
+        return moderate(commentIds, REJECTED);
+    }
+
+    /**
+     * Переводит пачку комментариев в состояние state двумя запросами: select с блокировкой и один update.
+     * Одобрить можно и отклоненный комментарий, и наоборот. Счетчики одобренных комментариев событий
+     * меняются на разницу, см. {@link #updateApprovedCounters}
+     *
+     * @param commentIds айди комментариев, повторы игнорируются
+     * @return итог по каждому id в порядке запроса
+     */
+    private List<CommentModerationResultDto> moderate(List<Long> commentIds, CommentState state) {
+        Set<Long> ids = new LinkedHashSet<>(commentIds);
+        Map<Long, ModerationState> locked = commentRepository.lockForModeration(ids).stream()
+                .collect(Collectors.toMap(ModerationState::getId, Function.identity()));
+        int updated = commentRepository.updateState(ids, state);
+        List<CommentModerationResultDto> results = new ArrayList<>(ids.size());
+        Map<Long, Long> approvedDelta = new HashMap<>();
+        for (Long id : ids) {
+            ModerationState comment = locked.get(id);
+            if (comment == null) {
+                results.add(new CommentModerationResultDto(id, false, null, "комментария нет в базе"));
+            } else if (comment.getState() == state) {
+                results.add(new CommentModerationResultDto(id, false, state, "комментарий уже в состоянии " + state));
+            } else {
+                results.add(new CommentModerationResultDto(id, true, state, null));
+                if (state == APPROVED || comment.getState() == APPROVED) {
+                    approvedDelta.merge(comment.getEventId(), state == APPROVED ? 1L : -1L, Long::sum);
+                }
+            }
+        }
+        updateApprovedCounters(approvedDelta);
+        log.info("AdminCommentService: пакетная модерация {}, запрошено {}, изменено {}", state, ids.size(), updated);
+        return results;
+    }
+
+    /**
+     * Пересчитывает счетчик одобренных комментариев событий с id в промежутке (fromId, toId] одной короткой
+     * транзакцией. События сначала блокируются, поэтому подсчет видит все закоммиченные изменения модерации
+     *
+     * @return число пересчитанных событий
+     */
+    public int recountApprovedComments(long fromId, long toId) {
+        if (eventRepository.lockRange(fromId, toId).isEmpty()) {
+            return 0;
+        }
+        return eventRepository.recountApprovedComments(fromId, toId);
+    }
+
+    /**
+     * События блокируются одним запросом в порядке id, затем счетчики меняются одним update на каждое
+     * значение разницы: при модерации пачки обычно это одно-два значения, а не update на каждое событие
+     */
+    private void updateApprovedCounters(Map<Long, Long> approvedDelta) {
+        Map<Long, List<Long>> eventsByDelta = approvedDelta.entrySet().stream()
+                .filter(entry -> entry.getValue() != 0)
+                .collect(Collectors.groupingBy(Map.Entry::getValue,
+                        Collectors.mapping(Map.Entry::getKey, Collectors.toList())));
+        if (eventsByDelta.isEmpty()) {
+            return;
+        }
+        if (approvedDelta.size() > 1) {
+            eventRepository.lockForModeration(approvedDelta.keySet());
+        }
+        eventsByDelta.forEach((delta, eventIds) -> eventRepository.addApprovedComments(eventIds, delta));
+    }
+
+    private CommentDto moderate(long commentId, CommentState state) {
+        if (moderate(Collections.singletonList(commentId), state).get(0).getState() == null) {
+            throw new NotFoundException(
+                    String.format("AdminCommentService: комментария по id=%d нет в базе", commentId));
+        }
+        return CommentMapper.toCommentDto(getCommentFromDbOrThrow(commentId));
     }
 
     private Comment getCommentFromDbOrThrow(long commentId) {
         return commentRepository.findById(commentId).orElseThrow(() -> new NotFoundException(
                 String.format("PrivateCommentService: комментария по id=%d нет в базе", commentId)));
     }
-}
\ No newline at end of file
+}
@@ -15,15 +15,20 @@ import ru.practicum.main_server.model.ParticipationRequest;
 import ru.practicum.main_server.model.State;
 import ru.practicum.main_server.model.dto.AdminUpdateEventRequest;
 import ru.practicum.main_server.model.dto.EventFullDto;
+import ru.practicum.main_server.model.dto.EventModerationResultDto;
 import ru.practicum.main_server.repository.CategoryRepository;
 import ru.practicum.main_server.repository.EventRepository;
+import ru.practicum.main_server.repository.EventRepository.ModerationState;
 import ru.practicum.main_server.repository.ParticipationRequestRepository;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -55,9 +60,7 @@ public class AdminEventService {
         log.info("AdminEventService: чтение всех событий, from: {}, size: {}", from, size);
         List<Event> e = statClient.getEventsWithViews(eventRepository.searchEventsByAdmin(users, states, categories,
                 start, end, PageRequest.of(from / size, size)).toList());
-        log.info("////eventsWithViews{}", e);
         List<Event> eventsWithRequests = getEventsWithConfirmedRequests(e);
-        log.info("////eventsWithRequests{}", eventsWithRequests);
         return eventsWithRequests.stream().map(EventMapper::toEventFullDto).collect(Collectors.toList());
     }
 
@@ -94,6 +97,72 @@ public class AdminEventService {
         return EventMapper.toEventFullDto(event);
     }
 
+    /**
+     * Публикует пачку событий двумя запросами независимо от ее размера: события блокируются одним select,
+     * затем одним update публикуются те, что ожидают публикации и начнутся не раньше чем через два часа.
+     * Причины отказа по остальным id определяются по заблокированному снимку, поэтому совпадают с результатом update
+     *
+     * @param eventIds айди событий, повторы игнорируются
+     * @return итог по каждому id в порядке запроса
+     */
+    public List<EventModerationResultDto> publishEvents(List<Long> eventIds) {
+        // точность timestamp в базе - микросекунды, опубликованное время в ответе должно совпадать с записанным
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        LocalDateTime minEventDate = now.plusHours(2);
+        Set<Long> ids = new LinkedHashSet<>(eventIds);
+        Map<Long, ModerationState> locked = lockForModeration(ids);
+        int updated = eventRepository.publishPending(ids, now, minEventDate, State.PENDING, State.PUBLISHED);
+        List<EventModerationResultDto> results = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            ModerationState event = locked.get(id);
+            if (event == null) {
+                results.add(notUpdated(id, null, "события нет в базе"));
+            } else if (event.getState() != State.PENDING) {
+                results.add(notUpdated(id, event.getState(), "событие не ожидает публикации"));
+            } else if (!event.getEventDate().isAfter(minEventDate)) {
+                results.add(notUpdated(id, event.getState(), "дата события раньше чем через два часа от публикации"));
+            } else {
+                results.add(new EventModerationResultDto(id, true, State.PUBLISHED, null));
+            }
+        }
+        log.info("AdminEventService: пакетная публикация, запрошено {}, опубликовано {}", ids.size(), updated);
+        return results;
+    }
+
+    /**
+     * Отклоняет пачку событий одним update. В отличие от {@link #rejectEvent(Long)} отклоняются только события,
+     * ожидающие публикации: пачка не должна снимать с публикации уже опубликованные события
+     *
+     * @param eventIds айди событий, повторы игнорируются
+     * @return итог по каждому id в порядке запроса
+     */
+    public List<EventModerationResultDto> rejectEvents(List<Long> eventIds) {
+        Set<Long> ids = new LinkedHashSet<>(eventIds);
+        Map<Long, ModerationState> locked = lockForModeration(ids);
+        int updated = eventRepository.rejectPending(ids, State.PENDING, State.CANCELED);
+        List<EventModerationResultDto> results = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            ModerationState event = locked.get(id);
+            if (event == null) {
+                results.add(notUpdated(id, null, "события нет в базе"));
+            } else if (event.getState() != State.PENDING) {
+                results.add(notUpdated(id, event.getState(), "событие не ожидает публикации"));
+            } else {
+                results.add(new EventModerationResultDto(id, true, State.CANCELED, null));
+            }
+        }
+        log.info("AdminEventService: пакетное отклонение, запрошено {}, отклонено {}", ids.size(), updated);
+        return results;
+    }
+
+    private Map<Long, ModerationState> lockForModeration(Set<Long> ids) {
+        return eventRepository.lockForModeration(ids).stream()
+                .collect(Collectors.toMap(ModerationState::getId, Function.identity()));
+    }
+
+    private static EventModerationResultDto notUpdated(Long id, State state, String reason) {
+        return new EventModerationResultDto(id, false, state, reason);
+    }
 
     /**
      * Возвращает событие из запроса админа
@@ -189,7 +258,8 @@ public class AdminEventService {
             e.setConfirmedRequests(entry.getValue());
             eventsWithRequests.put(e.getId(), e);
         }
-        log.info("////eventsWithRequests{}",eventsWithRequests);
+        log.debug("AdminEventService: подтвержденные заявки есть у {} из {} событий", countedRequests.size(),
+                events.size());
         return new ArrayList<>(eventsWithRequests.values());
     }
 
@@ -1,16 +1,20 @@
 package ru.practicum.main_server.service.admin_service;
 
 import lombok.extern.slf4j.Slf4j;
+import ru.practicum.main_server.cache.CachedEntity;
+import ru.practicum.main_server.cache.EntityChangedEvent;
+import ru.practicum.main_server.exception.NotFoundException;
+import ru.practicum.main_server.model.User;
 import ru.practicum.main_server.model.dto.NewUserRequest;
 import ru.practicum.main_server.model.dto.UserDto;
 import ru.practicum.main_server.mapper.UserMapper;
 import ru.practicum.main_server.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import javax.persistence.EntityNotFoundException;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -21,10 +25,12 @@ import static ru.practicum.main_server.mapper.UserMapper.*;
 @Transactional
 public class AdminUserService {
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
-    public AdminUserService(UserRepository userRepository) {
+    public AdminUserService(UserRepository userRepository, ApplicationEventPublisher eventPublisher) {
         this.userRepository = userRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     public List<UserDto> readUsers(List<Long> ids, int from, int size) {
@@ -47,16 +53,19 @@ public class AdminUserService {
         return toUserDto(userRepository.save(toUser(newUserRequest)));
     }
 
+    /**
+     * Удаление идет через сессию, а не массовым запросом: так из второго уровня кэша уходит только
+     * удаленный пользователь, а не весь регион. На других узлах запись сбрасывается по {@link EntityChangedEvent}
+     */
     public void deleteUser(long userId) {
-        checkUserInDb(userId);
-        userRepository.deleteUserById(userId);
+        userRepository.delete(getUserFromDbOrThrow(userId));
+        eventPublisher.publishEvent(new EntityChangedEvent(CachedEntity.USER, userId));
         log.info("AdminUserService: пользователь c id={} удален", userId);
     }
 
-    private void checkUserInDb(long userId) {
-        if (!userRepository.existsById(userId)) {
-            throw new EntityNotFoundException(String.format("AdminUserService: пользователя с id=%d нет в базе", userId));
-        }
-        log.info("AdminUserService: проверка существования пользователя с id={} прошла успешно", userId);
+    private User getUserFromDbOrThrow(long userId) {
+        return userRepository.findById(userId)
+                .orElseThrow(() -> new NotFoundException(
+                        String.format("AdminUserService: пользователя с id=%d нет в базе", userId)));
     }
 }
@@ -0,0 +1,103 @@
+package ru.practicum.main_server.service.admin_service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.main_server.model.CommentModerationTask;
+import ru.practicum.main_server.moderation.ModerationRule;
+import ru.practicum.main_server.repository.CommentModerationTaskRepository;
+import ru.practicum.main_server.repository.CommentRepository;
+import ru.practicum.main_server.repository.CommentRepository.ModerationCandidate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static ru.practicum.main_server.model.CommentState.NEW;
+
+/**
+ * Автомодерация комментариев из очереди comment_moderation_queue. Пачку задач обрабатывает одна транзакция:
+ * задачи заблокированы до ее коммита, поэтому параллельные обработчики (в том числе на других узлах) берут
+ * разные пачки, а после сбоя задачи возвращаются в очередь вместе с откатом
+ */
+@Slf4j
+@Service
+@Transactional
+public class CommentAutoModerationService {
+    private final CommentModerationTaskRepository taskRepository;
+    private final CommentRepository commentRepository;
+    private final AdminCommentService adminCommentService;
+    private final List<ModerationRule> rules;
+    private final Counter approved;
+    private final Counter rejected;
+
+    @Autowired
+    public CommentAutoModerationService(CommentModerationTaskRepository taskRepository,
+                                        CommentRepository commentRepository,
+                                        AdminCommentService adminCommentService,
+                                        List<ModerationRule> rules,
+                                        MeterRegistry meterRegistry) {
+        this.taskRepository = taskRepository;
+        this.commentRepository = commentRepository;
+        this.adminCommentService = adminCommentService;
+        this.rules = rules;
+        this.approved = Counter.builder("comments.moderation.auto")
+                .description("Решения автомодерации комментариев")
+                .tag("outcome", "approved")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("comments.moderation.auto")
+                .description("Решения автомодерации комментариев")
+                .tag("outcome", "rejected")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Забирает до limit самых старых задач, проверяет комментарии всеми правилами и применяет решения
+     * пакетной модерацией {@link AdminCommentService}, по одному update на одобренные и на отклоненные.
+     * Комментарии, которые администратор успел отмодерировать вручную, только убираются из очереди
+     *
+     * @return количество забранных задач, 0 - очередь пуста или все задачи заняты другими обработчиками
+     */
+    public int processBatch(int limit) {
+        List<Long> ids = taskRepository.claim(PageRequest.of(0, limit)).stream()
+                .map(CommentModerationTask::getCommentId)
+                .collect(Collectors.toList());
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        List<ModerationCandidate> candidates = commentRepository.findModerationCandidates(ids, NEW);
+        Map<Long, String> reasons = new HashMap<>();
+        for (ModerationRule rule : rules) {
+            rule.check(candidates).forEach(reasons::putIfAbsent);
+        }
+        List<Long> toApprove = new ArrayList<>();
+        List<Long> toReject = new ArrayList<>();
+        for (ModerationCandidate candidate : candidates) {
+            String reason = reasons.get(candidate.getId());
+            if (reason == null) {
+                toApprove.add(candidate.getId());
+            } else {
+                log.debug("CommentAutoModerationService: комментарий id={} отклонен: {}", candidate.getId(), reason);
+                toReject.add(candidate.getId());
+            }
+        }
+        if (!toApprove.isEmpty()) {
+            adminCommentService.approveComments(toApprove);
+        }
+        if (!toReject.isEmpty()) {
+            adminCommentService.rejectComments(toReject);
+        }
+        taskRepository.deleteTasks(ids);
+        approved.increment(toApprove.size());
+        rejected.increment(toReject.size());
+        log.info("CommentAutoModerationService: задач {}, одобрено {}, отклонено {}", ids.size(), toApprove.size(),
+                toReject.size());
+        return ids.size();
+    }
+}
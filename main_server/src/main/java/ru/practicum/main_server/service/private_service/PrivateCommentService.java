@@ -8,18 +8,21 @@ import ru.practicum.main_server.exception.BadRequestException;
 import ru.practicum.main_server.exception.NotFoundException;
 import ru.practicum.main_server.mapper.CommentMapper;
 import ru.practicum.main_server.model.Comment;
-import ru.practicum.main_server.model.Event;
+import ru.practicum.main_server.model.CommentState;
 import ru.practicum.main_server.model.State;
 import ru.practicum.main_server.model.User;
 import ru.practicum.main_server.model.dto.CommentDto;
+import ru.practicum.main_server.repository.CommentModerationTaskRepository;
 import ru.practicum.main_server.repository.CommentRepository;
 import ru.practicum.main_server.repository.EventRepository;
 import ru.practicum.main_server.repository.UserRepository;
 
 import java.time.LocalDateTime;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.stream.Collectors;
 
+import static ru.practicum.main_server.model.CommentState.APPROVED;
 import static ru.practicum.main_server.model.CommentState.NEW;
 
 @Slf4j
@@ -29,61 +32,86 @@ public class PrivateCommentService {
     private final CommentRepository commentRepository;
     private final UserRepository userRepository;
     private final EventRepository eventRepository;
+    private final CommentModerationTaskRepository moderationTaskRepository;
 
     @Autowired
     public PrivateCommentService(CommentRepository commentRepository,
-                                 UserRepository userRepository, EventRepository eventRepository) {
+                                 UserRepository userRepository, EventRepository eventRepository,
+                                 CommentModerationTaskRepository moderationTaskRepository) {
         this.commentRepository = commentRepository;
         this.userRepository = userRepository;
         this.eventRepository = eventRepository;
+        this.moderationTaskRepository = moderationTaskRepository;
     }
 
+    /**
+     * Сохраняет комментарий в состоянии NEW и ставит его в очередь автомодерации в той же транзакции,
+     * решение принимают обработчики очереди. Событие уже проверено запросом exists, поэтому берется ссылкой
+     */
     public CommentDto createComment(long userId, long eventId, CommentDto commentDto) {
         checkEventPublished(eventId);
         Comment comment = CommentMapper.toComment(commentDto);
-        log.info("комментарий: {}.", commentDto);
-        comment.setEvent(getEventFromDbOrThrow(eventId));
+        comment.setEvent(eventRepository.getReferenceById(eventId));
         comment.setAuthor(getUserFromDbOrThrow(userId));
         comment.setState(NEW);
         comment.setCreated(LocalDateTime.now());
-        log.info("комментарий создан {}.", comment);
-        return CommentMapper.toCommentDto(commentRepository.save(comment));
+        comment = commentRepository.save(comment);
+        moderationTaskRepository.enqueue(comment.getId(), comment.getCreated());
+        log.info("PrivateCommentService: пользователь с id={} комментирует событие с id={}", userId, eventId);
+        return CommentMapper.toCommentDto(comment);
     }
 
     public void deleteComment(long userId, long commentId) {
-        checkAuthor(userId, commentId);
-        commentRepository.deleteById(commentId);
+        Comment comment = checkAuthor(userId, commentId);
+        dropApproved(comment);
+        commentRepository.delete(comment);
     }
 
+    /**
+     * Отредактированный комментарий снова уходит на модерацию, поэтому одобренный перестает учитываться в счетчике
+     */
     public CommentDto updateComment(long userId, long commentId, CommentDto commentDto) {
-        checkAuthor(userId, commentId);
+        dropApproved(checkAuthor(userId, commentId));
         commentDto.setState(String.valueOf(NEW));
         Comment updatedComment = CommentMapper.toComment(commentDto);
-        return CommentMapper.toCommentDto(commentRepository.save(updatedComment));
+        CommentDto updated = CommentMapper.toCommentDto(commentRepository.save(updatedComment));
+        if (!moderationTaskRepository.existsById(commentId)) {
+            moderationTaskRepository.enqueue(commentId, LocalDateTime.now());
+        }
+        return updated;
     }
 
-    public List<CommentDto> readEventComments(Long eventId) {
-        return commentRepository.findByEventId(eventId).stream().map(CommentMapper::toCommentDto)
+    /**
+     * Страница комментариев события во всех состояниях, см. {@link CommentRepository#findPage}
+     */
+    @Transactional(readOnly = true)
+    public List<CommentDto> readEventComments(Long eventId, LocalDateTime afterCreated, Long afterId, int size) {
+        return commentRepository.findPage(eventId, EnumSet.allOf(CommentState.class), afterCreated, afterId, size)
+                .stream()
+                .map(CommentMapper::toCommentDto)
                 .collect(Collectors.toList());
     }
 
-    private void checkAuthor(long userId, long commentId) {
-        if (getCommentFromDbOrThrow(commentId).getAuthor().getId() != userId) {
+    private void dropApproved(Comment comment) {
+        if (comment.getState() == APPROVED) {
+            eventRepository.addApprovedComments(comment.getEvent().getId(), -1);
+        }
+    }
+
+    private Comment checkAuthor(long userId, long commentId) {
+        Comment comment = getCommentFromDbOrThrow(commentId);
+        if (comment.getAuthor().getId() != userId) {
             throw new BadRequestException(String.format("PrivateCommentService: только автор или администратор могут " +
                     "редактировать/удалять комментарий. commentId=%d, userId=%d", commentId, userId));
         }
+        return comment;
     }
 
     private Comment getCommentFromDbOrThrow(long commentId) {
-        return commentRepository.findById(commentId).orElseThrow(() -> new NotFoundException(
+        return commentRepository.findByIdForUpdate(commentId).orElseThrow(() -> new NotFoundException(
                 String.format("PrivateCommentService: комментария по id=%d нет в базе", commentId)));
     }
 
-    private Event getEventFromDbOrThrow(Long id) {
-        return eventRepository.findById(id).orElseThrow(() -> new NotFoundException(
-                String.format("PrivateCommentService: события по id=%d нет в базе", id)));
-    }
-
     private void checkEventPublished(long eventId) {
         if (!eventRepository.existsByIdAndState(eventId, State.PUBLISHED)) {
             throw new BadRequestException("Нельзя комментировать неопубликованное событие");
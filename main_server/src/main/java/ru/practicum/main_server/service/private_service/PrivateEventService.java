@@ -22,8 +22,10 @@ import ru.practicum.main_server.repository.UserRepository;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.function.Function;
 import java.util.stream.Collectors;
@@ -33,6 +35,15 @@ import static ru.practicum.main_server.model.Status.CONFIRMED;
 @Service
 @Slf4j
 public class PrivateEventService {
+    /**
+     * Наибольшее число интервалов графика просмотров, столько же принимает GET /stats/series сервера статистики
+     */
+    static final int MAX_SERIES_BUCKETS = 1440;
+    private static final Map<String, ChronoUnit> SERIES_BUCKETS = Map.of(
+            "minute", ChronoUnit.MINUTES,
+            "hour", ChronoUnit.HOURS,
+            "day", ChronoUnit.DAYS);
+
     private final EventRepository eventRepository;
     private final UserRepository userRepository;
     private final StatisticClient statClient;
@@ -90,13 +101,39 @@ public class PrivateEventService {
         return eventFullDto;
     }
 
-    public EventFullDto readEvent(Long userId, Long eventId) {
+    /**
+     * Возвращает полную информацию о событии инициатору
+     *
+     * @param viewsSeries размер интервала (minute, hour, day) для графика просмотров с момента публикации,
+     *                    null - без графика. График ограничен последними MAX_SERIES_BUCKETS интервалами
+     * @return EventFullDto
+     */
+    public EventFullDto readEvent(Long userId, Long eventId, String viewsSeries) {
+        ChronoUnit seriesUnit = null;
+        if (viewsSeries != null) {
+            seriesUnit = SERIES_BUCKETS.get(viewsSeries.toLowerCase(Locale.ROOT));
+            if (seriesUnit == null) {
+                throw new BadRequestException(String.format("неизвестный интервал графика просмотров %s, " +
+                        "допустимы minute, hour, day", viewsSeries));
+            }
+        }
         checkEventInitiator(userId, eventId);
         log.info("PrivateEventService: чтение пользователем с id={} события с id={}", userId, eventId);
         Event event = eventRepository.getReferenceById(eventId);
         event.setViews(statClient.getViewsSingleEvent(eventId));
         event.setConfirmedRequests(participationRequestRepository.countByEventIdAndStatus(eventId, Status.CONFIRMED));
-        return EventMapper.toEventFullDto(event);
+        EventFullDto eventFullDto = EventMapper.toEventFullDto(event);
+        if (seriesUnit != null) {
+            LocalDateTime end = LocalDateTime.now();
+            LocalDateTime start = event.getPublishedOn() == null ? event.getCreatedOn() : event.getPublishedOn();
+            LocalDateTime earliest = end.minus(MAX_SERIES_BUCKETS - 1, seriesUnit).truncatedTo(seriesUnit);
+            if (start.isBefore(earliest)) {
+                start = earliest;
+            }
+            eventFullDto.setViewsSeries(statClient.getViewsSeries(eventId, start, end,
+                    viewsSeries.toLowerCase(Locale.ROOT)));
+        }
+        return eventFullDto;
     }
 
     @Transactional
@@ -165,7 +202,6 @@ public class PrivateEventService {
                 .findByStatusAndEvent(CONFIRMED, events).stream()
                 .collect(Collectors.groupingBy(ParticipationRequest::getEvent, Collectors.counting()));
         if (countedRequests.isEmpty()) {
-            log.info("////countedRequests пустой");
             return events;
         }
         for (Map.Entry<Event, Long> entry : countedRequests.entrySet()) {
@@ -173,7 +209,8 @@ public class PrivateEventService {
             e.setConfirmedRequests(entry.getValue());
             eventsWithRequests.put(e.getId(), e);
         }
-        log.info("////eventsWithRequests{}",eventsWithRequests);
+        log.debug("PrivateEventService: подтвержденные заявки есть у {} из {} событий", countedRequests.size(),
+                events.size());
         return new ArrayList<>(eventsWithRequests.values());
     }
 
@@ -9,13 +9,19 @@ import ru.practicum.main_server.exception.ForbiddenException;
 import ru.practicum.main_server.exception.NotFoundException;
 import ru.practicum.main_server.mapper.ParticipationRequestMapper;
 import ru.practicum.main_server.model.*;
+import ru.practicum.main_server.model.dto.EventRequestStatusUpdateRequest;
+import ru.practicum.main_server.model.dto.EventRequestStatusUpdateResult;
 import ru.practicum.main_server.model.dto.ParticipationRequestDto;
 import ru.practicum.main_server.repository.EventRepository;
 import ru.practicum.main_server.repository.ParticipationRequestRepository;
+import ru.practicum.main_server.repository.ParticipationRequestRepository.RequestView;
 import ru.practicum.main_server.repository.UserRepository;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -42,10 +48,14 @@ public class PrivateParticipationRequestService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Создает заявку на участие. Строка события блокируется на время проверки лимита, поэтому параллельные
+     * заявки на событие без модерации не подтвердятся сверх лимита участников.
+     */
     @Transactional
     public ParticipationRequestDto createParticipationRequest(Long userId, Long eventId) {
         User requester = getUserFromDbOrThrow(userId);
-        Event event = getEventFromDbOrThrow(eventId);
+        Event event = getEventForUpdateOrThrow(eventId);
         validateRequest(requester, event);
         ParticipationRequest participation = ParticipationRequest.builder()
                 .event(event)
@@ -80,19 +90,20 @@ public class PrivateParticipationRequestService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Подтверждает одну заявку тем же путем, что и {@link #updateParticipationRequests}: под блокировкой события
+     * с пересчетом подтвержденных заявок.
+     */
     @Transactional
     public ParticipationRequestDto approveParticipationRequest(Long userId, Long eventId, Long requestId) {
-        validateInitiator(userId, eventId);
-        Event event = getEventFromDbOrThrow(eventId);
-        ParticipationRequest participation = getRequestFromDbOrThrow(requestId);
-        if (!participation.getStatus().equals(Status.PENDING)) {
-            throw new ForbiddenException("чтобы принять запрос, он должен быть в статусе PENDING");
+        if (!participationRepository.existsById(requestId)) {
+            throw new NotFoundException(String.format("PrivateParticipationRequestService: запроса по id=%d нет в базе",
+                    requestId));
         }
-        if (event.getConfirmedRequests() != null && event.getParticipantLimit() <= event.getConfirmedRequests()) {
-            participation.setStatus(Status.REJECTED);
-        }
-        participation.setStatus(Status.CONFIRMED);
-        return ParticipationRequestMapper.toParticipationRequestDto(participationRepository.save(participation));
+        return updateParticipationRequests(userId, eventId,
+                new EventRequestStatusUpdateRequest(List.of(requestId), Status.CONFIRMED))
+                .getConfirmedRequests()
+                .get(0);
     }
 
     @Transactional
@@ -103,6 +114,72 @@ public class PrivateParticipationRequestService {
         return ParticipationRequestMapper.toParticipationRequestDto(participationRepository.save(participation));
     }
 
+    /**
+     * Подтверждает или отклоняет заявки на событие одной транзакцией. Строка события блокируется, поэтому
+     * параллельные подтверждения не превысят лимит участников. Заявки подтверждаются в порядке подачи, пока
+     * есть места; если лимит заполнен, все оставшиеся заявки PENDING на событие отклоняются тем же вызовом.
+     * Статусы меняются set-based update без загрузки заявок.
+     *
+     * @param updateRequest id заявок (все должны быть заявками события в статусе PENDING) и новый статус
+     * @return подтвержденные и отклоненные этим вызовом заявки
+     */
+    public EventRequestStatusUpdateResult updateParticipationRequests(Long userId, Long eventId,
+                                                                      EventRequestStatusUpdateRequest updateRequest) {
+        Event event = getEventForUpdateOrThrow(eventId);
+        if (!event.getInitiator().getId().equals(userId)) {
+            throw new BadRequestException("только инициатор события может изменять статус запросов на участие");
+        }
+        Status status = updateRequest.getStatus();
+        if (status != Status.CONFIRMED && status != Status.REJECTED) {
+            throw new BadRequestException("запрос на участие можно только подтвердить или отклонить");
+        }
+        Set<Long> ids = new LinkedHashSet<>(updateRequest.getRequestIds());
+        List<RequestView> pending = participationRepository.findViews(eventId, Status.PENDING, ids);
+        if (pending.size() != ids.size()) {
+            throw new ForbiddenException("изменить статус можно только у запросов события в статусе PENDING");
+        }
+
+        List<RequestView> confirmed = new ArrayList<>();
+        List<RequestView> rejected = new ArrayList<>();
+        if (status == Status.REJECTED) {
+            rejected.addAll(pending);
+        } else {
+            long limit = participantLimit(event);
+            long free = limit == 0 ? Long.MAX_VALUE
+                    : limit - participationRepository.countByEventIdAndStatus(eventId, Status.CONFIRMED);
+            if (free <= 0) {
+                throw new ForbiddenException(String.format("превышено количество участников события - %d", limit));
+            }
+            confirmed.addAll(pending.subList(0, (int) Math.min(free, pending.size())));
+            updateStatus(confirmed, Status.CONFIRMED);
+            if (limit != 0 && confirmed.size() == free) {
+                // подтвержденные уже записаны, в выборку попадут только оставшиеся заявки
+                rejected.addAll(participationRepository.findViews(eventId, Status.PENDING));
+            }
+        }
+        updateStatus(rejected, Status.REJECTED);
+        log.info("PrivateParticipationRequestService: по событию с id={} подтверждено {}, отклонено {} запросов",
+                eventId, confirmed.size(), rejected.size());
+        return new EventRequestStatusUpdateResult(toDtos(confirmed, eventId, Status.CONFIRMED),
+                toDtos(rejected, eventId, Status.REJECTED));
+    }
+
+    private void updateStatus(List<RequestView> requests, Status status) {
+        if (requests.isEmpty()) {
+            return;
+        }
+        List<Long> ids = new ArrayList<>(requests.size());
+        requests.forEach(view -> ids.add(view.getId()));
+        participationRepository.updateStatus(ids, Status.PENDING, status);
+    }
+
+    private static List<ParticipationRequestDto> toDtos(List<RequestView> requests, Long eventId, Status status) {
+        return requests.stream()
+                .map(view -> ParticipationRequestMapper.toParticipationRequestDto(view.getId(), view.getCreated(),
+                        eventId, view.getRequesterId(), status))
+                .collect(Collectors.toList());
+    }
+
     private void validateInitiator(Long userId, Long eventId) {
         Event event = getEventFromDbOrThrow(eventId);
         if (!event.getInitiator().getId().equals(userId)) {
@@ -122,13 +199,21 @@ public class PrivateParticipationRequestService {
         if (!(event.getState().equals(State.PUBLISHED))) {
             throw new ForbiddenException("невозможно создать запрос на неопубликованное событие");
         }
-        if (event.getParticipantLimit() != null && event.getConfirmedRequests() != null
-                && event.getParticipantLimit() != 0 && event.getParticipantLimit() <= event.getConfirmedRequests()) {
-            throw new ForbiddenException(String.format("превышено количество участников события - %d",
-                    event.getConfirmedRequests()));
+        long limit = participantLimit(event);
+        if (limit != 0 && participationRepository.countByEventIdAndStatus(event.getId(), Status.CONFIRMED) >= limit) {
+            throw new ForbiddenException(String.format("превышено количество участников события - %d", limit));
         }
     }
 
+    private static long participantLimit(Event event) {
+        return event.getParticipantLimit() == null ? 0 : event.getParticipantLimit();
+    }
+
+    private Event getEventForUpdateOrThrow(Long id) {
+        return eventRepository.findByIdForUpdate(id).orElseThrow(() -> new NotFoundException(
+                String.format("PrivateParticipationRequestService: события по id=%d нет в базе", id)));
+    }
+
     private Event getEventFromDbOrThrow(Long id) {
         return eventRepository.findById(id).orElseThrow(() -> new NotFoundException(
                 String.format("AdminCompilationService: события по id=%d нет в базе", id)));
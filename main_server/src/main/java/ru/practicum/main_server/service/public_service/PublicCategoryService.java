@@ -1,45 +1,68 @@
 package ru.practicum.main_server.service.public_service;
 
 import lombok.extern.slf4j.Slf4j;
-import ru.practicum.main_server.mapper.CategoryMapper;
+import ru.practicum.main_server.cache.CategorySnapshot;
+import ru.practicum.main_server.exception.BadRequestException;
+import ru.practicum.main_server.exception.NotFoundException;
 import ru.practicum.main_server.model.Category;
 import ru.practicum.main_server.model.dto.CategoryDto;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import ru.practicum.main_server.repository.CategoryRepository;
 
-import javax.persistence.EntityNotFoundException;
 import java.util.List;
-import java.util.stream.Collectors;
 
 import static ru.practicum.main_server.mapper.CategoryMapper.*;
 
+/**
+ * Чтение категорий идет из {@link CategorySnapshot}. В базу запрос уходит только при промахе по id:
+ * категория могла появиться до пересборки снимка
+ */
 @Slf4j
 @Service
 public class PublicCategoryService {
     private final CategoryRepository categoryRepository;
+    private final CategorySnapshot categorySnapshot;
 
     @Autowired
-    public PublicCategoryService(CategoryRepository categoryRepository) {
+    public PublicCategoryService(CategoryRepository categoryRepository, CategorySnapshot categorySnapshot) {
         this.categoryRepository = categoryRepository;
+        this.categorySnapshot = categorySnapshot;
     }
 
     public List<CategoryDto> readAllCategories(int from, int size) {
-        log.info("PublicCategoryService: чтение всех категорий from: {}, size: {}", from, size);
-        return categoryRepository.findAll(PageRequest.of(from / size, size))
-                .stream()
-                .map(CategoryMapper::toCategoryDto)
-                .collect(Collectors.toList());
+        log.debug("PublicCategoryService: чтение всех категорий from: {}, size: {}", from, size);
+        checkPage(from, size);
+        return categorySnapshot.page(from, size);
+    }
+
+    public byte[] readAllCategoriesJson(int from, int size) {
+        log.debug("PublicCategoryService: чтение всех категорий from: {}, size: {}", from, size);
+        checkPage(from, size);
+        return categorySnapshot.pageJson(from, size);
     }
 
     public CategoryDto readCategory(long id) {
-        log.info("PublicCategoryService: чтение категории по id={}", id);
-        return toCategoryDto(getCategoryFromDbOrThrow(id));
+        log.debug("PublicCategoryService: чтение категории по id={}", id);
+        CategoryDto category = categorySnapshot.get(id);
+        return category != null ? category : toCategoryDto(getCategoryFromDbOrThrow(id));
+    }
+
+    public byte[] readCategoryJson(long id) {
+        log.debug("PublicCategoryService: чтение категории по id={}", id);
+        byte[] json = categorySnapshot.getJson(id);
+        return json != null ? json : categorySnapshot.toJson(toCategoryDto(getCategoryFromDbOrThrow(id)));
+    }
+
+    private void checkPage(int from, int size) {
+        if (from < 0 || size <= 0) {
+            throw new BadRequestException(String.format("from должен быть не меньше 0, size - больше 0: from=%d, " +
+                    "size=%d", from, size));
+        }
     }
 
     private Category getCategoryFromDbOrThrow(long id) {
-        return categoryRepository.findById(id).orElseThrow(() -> new EntityNotFoundException(String
+        return categoryRepository.findById(id).orElseThrow(() -> new NotFoundException(String
                 .format("PublicCategoryService: категории с id=%d нет в базе", id)));
     }
 }
@@ -8,6 +8,8 @@ import ru.practicum.main_server.mapper.CommentMapper;
 import ru.practicum.main_server.model.dto.CommentDto;
 import ru.practicum.main_server.repository.CommentRepository;
 
+import java.time.LocalDateTime;
+import java.util.EnumSet;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -25,8 +27,13 @@ public class PublicCommentService {
         this.commentRepository = commentRepository;
     }
 
-    public List<CommentDto> readEventComments(Long eventId) {
-        return commentRepository.findByStateAndEventId(APPROVED, eventId).stream().map(CommentMapper::toCommentDto)
+    /**
+     * Страница одобренных комментариев события, см. {@link CommentRepository#findPage}
+     */
+    @Transactional(readOnly = true)
+    public List<CommentDto> readEventComments(Long eventId, LocalDateTime afterCreated, Long afterId, int size) {
+        return commentRepository.findPage(eventId, EnumSet.of(APPROVED), afterCreated, afterId, size).stream()
+                .map(CommentMapper::toCommentDto)
                 .collect(Collectors.toList());
     }
 }
@@ -29,7 +29,7 @@ public class PublicCompilationService {
     }
 
     public List<CompilationDto> readCompilations(Boolean pinned, int from, int size) {
-        log.info("PublicCompilationService: Чтение компиляций pinned={}, from={}, size={}", pinned, from, size);
+        log.debug("PublicCompilationService: Чтение компиляций pinned={}, from={}, size={}", pinned, from, size);
         if (pinned == null) {
             List<Compilation> comps = compilationRepository.findAll(PageRequest.of(from / size, size)).toList();
             List<CompilationDto> compsWithViews = new ArrayList<>();
@@ -51,7 +51,7 @@ public class PublicCompilationService {
 
     public CompilationDto readCompilation(long id) {
         CompilationDto compilationDto = CompilationMapper.toCompilationDto(getCompilationFromDbOrThrow(id));
-        log.info("PublicCompilationService: Чтение компиляции по id={}", id);
+        log.debug("PublicCompilationService: Чтение компиляции по id={}", id);
         return compilationDto;
     }
 
@@ -3,19 +3,24 @@ package ru.practicum.main_server.service.public_service;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.main_server.client.StatisticClient;
 import ru.practicum.main_server.exception.BadRequestException;
 import ru.practicum.main_server.exception.NotFoundException;
+import ru.practicum.main_server.mapper.CommentMapper;
 import ru.practicum.main_server.mapper.EventMapper;
 import ru.practicum.main_server.model.Event;
 import ru.practicum.main_server.model.ParticipationRequest;
 import ru.practicum.main_server.model.State;
 import ru.practicum.main_server.model.Status;
+import ru.practicum.main_server.model.dto.CommentDto;
 import ru.practicum.main_server.model.dto.EndpointHitDto;
 import ru.practicum.main_server.model.dto.EventFullDto;
 import ru.practicum.main_server.model.dto.EventShortDto;
+import ru.practicum.main_server.repository.CommentRepository;
+import ru.practicum.main_server.repository.CommentRepository.EventCommentView;
 import ru.practicum.main_server.repository.EventRepository;
 import ru.practicum.main_server.repository.ParticipationRequestRepository;
 
@@ -29,28 +34,47 @@ import java.util.Map;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
+import static ru.practicum.main_server.model.CommentState.APPROVED;
 import static ru.practicum.main_server.model.Status.CONFIRMED;
 
 @Service
 @Slf4j
 @Transactional(readOnly = true)
 public class PublicEventService {
+    static final int MAX_LAST_COMMENTS = 10;
+    static final int TRENDING_OVERFETCH = 3;
+    static final int MAX_TRENDING_K = 100;
+    /**
+     * Окно топа сервера статистики (stats.trending.window-minutes по умолчанию)
+     */
+    static final int MAX_TRENDING_WINDOW = 60;
+
     private final EventRepository eventRepository;
     private final StatisticClient statClient;
     private final ParticipationRequestRepository participationRequestRepository;
+    private final CommentRepository commentRepository;
 
 
     @Autowired
     public PublicEventService(EventRepository eventRepository,
                               StatisticClient statClient,
-                              ParticipationRequestRepository participationRequestRepository) {
+                              ParticipationRequestRepository participationRequestRepository,
+                              CommentRepository commentRepository) {
         this.eventRepository = eventRepository;
         this.statClient = statClient;
         this.participationRequestRepository = participationRequestRepository;
+        this.commentRepository = commentRepository;
     }
 
+    /**
+     * Поиск опубликованных событий. Количество одобренных комментариев берется из счетчика в events
+     *
+     * @param lastComments сколько последних одобренных комментариев приложить к каждому событию, не больше
+     *                     {@value #MAX_LAST_COMMENTS}; 0 - не прикладывать
+     */
     public List<EventShortDto> readEvents(String text, List<Long> categories, Boolean paid, String rangeStart,
-                                          String rangeEnd, Boolean onlyAvailable, String sort, int from, int size) {
+                                          String rangeEnd, Boolean onlyAvailable, String sort, int from, int size,
+                                          int lastComments) {
         LocalDateTime start = getStartTime(rangeStart);
         LocalDateTime end = getEndTime(rangeEnd);
 
@@ -78,6 +102,9 @@ public class PublicEventService {
                             < eventShortDto.getParticipationLimit())
                     .collect(Collectors.toList());
         }
+        if (lastComments > 0) {
+            addLastComments(listShortDto, Math.min(lastComments, MAX_LAST_COMMENTS));
+        }
         return listShortDto;
     }
 
@@ -91,18 +118,62 @@ public class PublicEventService {
         return dto;
     }
 
+    /**
+     * Возвращает самые просматриваемые опубликованные события за последние window минут. Топ считает сервер
+     * статистики и не знает состояния событий, поэтому у него запрашивается в TRENDING_OVERFETCH раз больше
+     * адресов: отмененные и снятые с публикации события отбрасываются, а из базы читается ограниченное число строк.
+     *
+     * @param window окно в минутах, от 1 до {@value #MAX_TRENDING_WINDOW}
+     * @param k      размер топа, от 1 до {@value #MAX_TRENDING_K}
+     * @return List событий по убыванию просмотров
+     */
+    public List<EventShortDto> readTrendingEvents(int window, int k) {
+        if (k < 1 || k > MAX_TRENDING_K) {
+            throw new BadRequestException(String.format("k должно быть от 1 до %d", MAX_TRENDING_K));
+        }
+        if (window < 1 || window > MAX_TRENDING_WINDOW) {
+            throw new BadRequestException(String.format("window должно быть от 1 до %d минут", MAX_TRENDING_WINDOW));
+        }
+        log.debug("PublicEventService: чтение топ-{} событий за {} мин.", k, window);
+        Map<Long, Integer> views = statClient.getTrendingEventViews(window,
+                Math.min(k * TRENDING_OVERFETCH, StatisticClient.MAX_TOP_K));
+        if (views.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Long, Event> events = eventRepository.findAllById(views.keySet()).stream()
+                .filter(event -> event.getState().equals(State.PUBLISHED))
+                .collect(Collectors.toMap(Event::getId, Function.identity()));
+        List<Event> trending = new ArrayList<>(events.size());
+        for (Map.Entry<Long, Integer> entry : views.entrySet()) {
+            Event event = events.get(entry.getKey());
+            if (event != null) {
+                event.setViews(entry.getValue());
+                trending.add(event);
+                if (trending.size() == k) {
+                    break;
+                }
+            }
+        }
+        if (trending.isEmpty()) {
+            return new ArrayList<>();
+        }
+        getEventsWithConfirmedRequests(trending);
+        return trending.stream().map(EventMapper::toEventShortDto).collect(Collectors.toList());
+    }
+
     /**
      * Отправляет данные в сервис статистики
      *
      * @param request - запрос http
      */
     public void sentHitStat(HttpServletRequest request) {
-        log.info("request URL {}", request.getRequestURI());
+        log.debug("PublicEventService: хит {}", request.getRequestURI());
         EndpointHitDto endpointHit = EndpointHitDto.builder()
-                .app("main_server")
+                .app(StatisticClient.APP_NAME)
                 .uri(request.getRequestURI())
                 .ip(request.getRemoteAddr())
                 .timestamp(LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")))
+                .userAgent(request.getHeader(HttpHeaders.USER_AGENT))
                 .build();
         statClient.createHit(endpointHit);
     }
@@ -132,6 +203,25 @@ public class PublicEventService {
                 String.format("AdminCompilationService: события по id=%d нет в базе", id)));
     }
 
+    /**
+     * Превью комментариев: по короткому запросу на событие страницы. Каждый читает k строк по индексу
+     * (event_id, state, created, id) с конца, тогда как одна выборка с row_number() по всем событиям
+     * перебирает все их одобренные комментарии
+     */
+    private void addLastComments(List<EventShortDto> events, int k) {
+        if (events.isEmpty()) {
+            return;
+        }
+        Map<Long, List<CommentDto>> comments = commentRepository.findLatestForEvents(
+                        events.stream().map(EventShortDto::getId).collect(Collectors.toList()), APPROVED.name(), k)
+                .stream()
+                .collect(Collectors.groupingBy(EventCommentView::getEventId,
+                        Collectors.mapping(CommentMapper::toCommentDto, Collectors.toList())));
+        for (EventShortDto event : events) {
+            event.setLastComments(comments.getOrDefault(event.getId(), new ArrayList<>()));
+        }
+    }
+
     /**
      * @param events список событий
      * @return List событий с полями confirmedRequests
@@ -149,7 +239,8 @@ public class PublicEventService {
             e.setConfirmedRequests(entry.getValue());
             eventsWithRequests.put(e.getId(), e);
         }
-        log.info("////eventsWithRequests{}",eventsWithRequests);
+        log.debug("PublicEventService: подтвержденные заявки есть у {} из {} событий", countedRequests.size(),
+                events.size());
         return new ArrayList<>(eventsWithRequests.values());
     }
 }
@@ -1,11 +1,8 @@
-drop table if exists users CASCADE;
-drop table if exists requests CASCADE;
-drop table if exists locations CASCADE;
-drop table if exists categories CASCADE;
-drop table if exists compilations CASCADE;
-drop table if exists events CASCADE;
-drop table if exists compilations_events CASCADE;
-drop table if exists comments CASCADE;
+-- Схема на момент перехода на Flyway (бывший schema.sql без drop table). Существующая база получает эту версию
+-- как baseline и V1 на ней не выполняется.
+-- Правила для следующих версий, чтобы миграция не мешала работающим узлам предыдущей версии:
+-- новые колонки nullable или с default, переименование и удаление - в два релиза (добавить, перейти, удалить),
+-- индексы - только в R__indexes.sql.
 
 CREATE TABLE IF NOT EXISTS users
 (
@@ -0,0 +1,6 @@
+-- Счетчик одобренных комментариев для списков событий. Ведется AdminCommentService и PrivateCommentService
+-- при смене состояния и удалении комментария. Миграция только добавляет колонку: пересчет по таблице comments
+-- одним UPDATE держал бы блокировки всех событий, поэтому он выполняется после старта короткими транзакциями
+-- по диапазонам id (ApprovedCommentsRecount, ewm.comments.recount-approved=true) - один раз после остановки
+-- узлов предыдущей версии, которые счетчик не меняют.
+ALTER TABLE events ADD COLUMN IF NOT EXISTS approved_comments BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,8 @@
+-- Очередь автомодерации комментариев. Обработчики забирают строки через FOR UPDATE SKIP LOCKED и удаляют их
+-- в транзакции, применяющей решение. Комментарии в состоянии NEW, оставшиеся с предыдущей версии,
+-- в очередь не ставятся и модерируются вручную.
+CREATE TABLE IF NOT EXISTS comment_moderation_queue
+(
+    comment_id  BIGINT                      NOT NULL PRIMARY KEY REFERENCES comments (id) ON DELETE CASCADE,
+    enqueued_at TIMESTAMP WITHOUT TIME ZONE NOT NULL
+);
@@ -0,0 +1,12 @@
+-- Те же индексы, что в postgresql/R__indexes.sql, H2 не поддерживает CONCURRENTLY
+CREATE INDEX IF NOT EXISTS idx_events_event_date ON events (event_date);
+CREATE INDEX IF NOT EXISTS idx_events_initiator ON events (initiator_id);
+CREATE INDEX IF NOT EXISTS idx_events_category ON events (category_id);
+CREATE INDEX IF NOT EXISTS idx_requests_event_status ON requests (event_id, status);
+CREATE INDEX IF NOT EXISTS idx_requests_requester ON requests (requester_id);
+DROP INDEX IF EXISTS idx_comments_event_state;
+CREATE INDEX IF NOT EXISTS idx_comments_event_state_created ON comments (event_id, state, created, id);
+DROP INDEX IF EXISTS idx_comments_author;
+CREATE INDEX IF NOT EXISTS idx_comments_author_created ON comments (author_id, created);
+CREATE INDEX IF NOT EXISTS idx_compilations_events_event ON compilations_events (event_id);
+CREATE INDEX IF NOT EXISTS idx_comment_queue_order ON comment_moderation_queue (enqueued_at, comment_id);
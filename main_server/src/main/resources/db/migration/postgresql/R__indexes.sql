@@ -0,0 +1,17 @@
+-- Повторяемая миграция: выполняется заново при изменении файла. CONCURRENTLY не блокирует запись в таблицу,
+-- такие команды Flyway выполняет вне транзакции, поэтому других команд в файле быть не должно.
+-- Изменить индекс: DROP INDEX CONCURRENTLY IF EXISTS и создать заново под другим именем.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_events_event_date ON events (event_date);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_events_initiator ON events (initiator_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_events_category ON events (category_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_requests_event_status ON requests (event_id, status);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_requests_requester ON requests (requester_id);
+DROP INDEX CONCURRENTLY IF EXISTS idx_comments_event_state;
+-- страницы комментариев события: фильтр по состоянию и порядок created, id берутся из индекса
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_comments_event_state_created ON comments (event_id, state, created, id);
+DROP INDEX CONCURRENTLY IF EXISTS idx_comments_author;
+-- частота комментариев автора для автомодерации, префикс author_id обслуживает и внешний ключ
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_comments_author_created ON comments (author_id, created);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_compilations_events_event ON compilations_events (event_id);
+-- обработчики автомодерации забирают самые старые задачи
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_comment_queue_order ON comment_moderation_queue (enqueued_at, comment_id);
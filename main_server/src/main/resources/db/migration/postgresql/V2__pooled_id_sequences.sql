@@ -0,0 +1,11 @@
+-- Сущности получают id блоками по 50 из последовательностей identity-колонок (оптимизатор pooled-lo),
+-- поэтому вставки можно отправлять пачками. Шаг последовательности должен совпадать с allocationSize.
+-- Узлы предыдущей версии продолжают брать id через identity: каждое nextval занимает свой блок из 50,
+-- так что во время поочередного перезапуска id не пересекаются.
+ALTER TABLE users ALTER COLUMN id SET INCREMENT BY 50;
+ALTER TABLE locations ALTER COLUMN id SET INCREMENT BY 50;
+ALTER TABLE categories ALTER COLUMN id SET INCREMENT BY 50;
+ALTER TABLE compilations ALTER COLUMN id SET INCREMENT BY 50;
+ALTER TABLE events ALTER COLUMN id SET INCREMENT BY 50;
+ALTER TABLE requests ALTER COLUMN id SET INCREMENT BY 50;
+ALTER TABLE comments ALTER COLUMN id SET INCREMENT BY 50;
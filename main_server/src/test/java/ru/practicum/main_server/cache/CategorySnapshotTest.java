@@ -0,0 +1,130 @@
+package ru.practicum.main_server.cache;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.main_server.model.Category;
+import ru.practicum.main_server.model.dto.CategoryDto;
+import ru.practicum.main_server.model.dto.NewCategoryDto;
+import ru.practicum.main_server.repository.CategoryRepository;
+import ru.practicum.main_server.service.admin_service.AdminCategoryService;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Снимок категорий за публичным API: пересборка после коммита, страницы from/size и сброс снимка при ошибке
+ * пересборки. Тест без @Transactional: изменения должны коммититься или откатываться по-настоящему
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class CategorySnapshotTest {
+    @Autowired
+    MockMvc mockMvc;
+    @Autowired
+    ObjectMapper objectMapper;
+    @Autowired
+    AdminCategoryService admCategoryService;
+    @Autowired
+    CategoryRepository categoryRepository;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    private final List<Long> created = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        created.forEach(admCategoryService::deleteCategory);
+    }
+
+    @Test
+    void publicEndpointReflectsCommittedChangesOnly() throws Exception {
+        CategoryDto first = create("SNAPSHOT-1");
+        CategoryDto second = create("SNAPSHOT-2");
+        CategoryDto third = create("SNAPSHOT-3");
+        List<CategoryDto> all = objectMapper.readValue(mockMvc.perform(get("/categories")
+                        .param("from", "0")
+                        .param("size", "10000"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray(), new TypeReference<List<CategoryDto>>() {
+        });
+        int from = all.indexOf(first);
+        assertEquals(List.of(first, second, third), all.subList(from, all.size()));
+
+        // страница с номером from / size, как у PageRequest.of(from / size, size)
+        for (int size : new int[]{1, 2, 10, Integer.MAX_VALUE}) {
+            for (int pageFrom = from; pageFrom <= all.size(); pageFrom++) {
+                int start = pageFrom / size * size;
+                List<CategoryDto> expected = all.subList(Math.min(start, all.size()),
+                        (int) Math.min(all.size(), (long) start + size));
+                mockMvc.perform(get("/categories")
+                                .param("from", String.valueOf(pageFrom))
+                                .param("size", String.valueOf(size)))
+                        .andExpect(status().isOk())
+                        .andExpect(content().bytes(objectMapper.writeValueAsBytes(expected)));
+            }
+        }
+        mockMvc.perform(get("/categories").param("from", "-1")).andExpect(status().isBadRequest());
+        mockMvc.perform(get("/categories").param("size", "0")).andExpect(status().isBadRequest());
+
+        // откаченное переименование не доходит до снимка
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            admCategoryService.updateCategory(new CategoryDto(first.getId(), "SNAPSHOT-ROLLED-BACK"));
+            status.setRollbackOnly();
+        });
+        assertEquals("SNAPSHOT-1", categoryRepository.findById(first.getId()).orElseThrow().getName());
+        mockMvc.perform(get("/categories/{id}", first.getId()))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(objectMapper.writeValueAsBytes(first)));
+
+        CategoryDto renamed = admCategoryService.updateCategory(new CategoryDto(first.getId(), "SNAPSHOT-RENAMED"));
+        mockMvc.perform(get("/categories/{id}", first.getId()))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes(objectMapper.writeValueAsBytes(renamed)));
+        mockMvc.perform(get("/categories").param("from", String.valueOf(from)).param("size", "1"))
+                .andExpect(content().bytes(objectMapper.writeValueAsBytes(List.of(renamed))));
+    }
+
+    @Test
+    void failedRebuildDropsSnapshot() {
+        CategoryRepository repository = mock(CategoryRepository.class);
+        CategorySnapshot snapshot = new CategorySnapshot(repository, new ObjectMapper(),
+                mock(PlatformTransactionManager.class));
+        DataAccessResourceFailureException failure = new DataAccessResourceFailureException("база недоступна");
+        when(repository.findAll(any(Sort.class)))
+                .thenReturn(List.of(new Category(1L, "OLD")))
+                .thenThrow(failure)
+                .thenThrow(failure)
+                .thenReturn(List.of(new Category(1L, "NEW")));
+        assertEquals("OLD", snapshot.get(1L).getName());
+
+        assertThrows(DataAccessResourceFailureException.class,
+                () -> snapshot.invalidate(new EntityChangedEvent(CachedEntity.CATEGORY, 1L)));
+        // устаревший снимок не отдается: чтение пробует пересобрать его заново
+        assertThrows(DataAccessResourceFailureException.class, () -> snapshot.get(1L));
+        assertEquals("NEW", snapshot.get(1L).getName());
+        verify(repository, times(4)).findAll(any(Sort.class));
+    }
+
+    private CategoryDto create(String name) {
+        CategoryDto category = admCategoryService.createCategory(new NewCategoryDto(name));
+        created.add(category.getId());
+        return category;
+    }
+}
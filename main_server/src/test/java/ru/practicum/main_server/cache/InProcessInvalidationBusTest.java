@@ -0,0 +1,77 @@
+package ru.practicum.main_server.cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InProcessInvalidationBusTest {
+    private final InProcessInvalidationBus busA = new InProcessInvalidationBus();
+    private final InProcessInvalidationBus busB = new InProcessInvalidationBus();
+    private final RecordingCache cacheA = new RecordingCache();
+    private final RecordingCache cacheB = new RecordingCache();
+    private final CacheInvalidator nodeA = new CacheInvalidator(Collections.singletonList(cacheA), busA);
+    private final CacheInvalidator nodeB = new CacheInvalidator(Collections.singletonList(cacheB), busB);
+
+    @AfterEach
+    void tearDown() {
+        busA.close();
+        busB.close();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void changeReachesOtherNodeOnly() {
+        EntityChangedEvent event = new EntityChangedEvent(CachedEntity.CATEGORY, 1L);
+        nodeA.publish(event);
+
+        assertEquals(Collections.singletonList(event), cacheB.events);
+        assertTrue(cacheA.events.isEmpty());
+    }
+
+    @Test
+    void changeIsDeliveredAfterCommitOnly() {
+        TransactionSynchronizationManager.initSynchronization();
+        nodeA.publish(new EntityChangedEvent(CachedEntity.USER, 2L));
+        assertTrue(cacheB.events.isEmpty());
+
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationUtils.invokeAfterCompletion(synchronizations, TransactionSynchronization.STATUS_ROLLED_BACK);
+        assertTrue(cacheB.events.isEmpty());
+
+        TransactionSynchronizationUtils.invokeAfterCommit(synchronizations);
+        assertEquals(1, cacheB.events.size());
+    }
+
+    @Test
+    void missedChangesResetAllCaches() {
+        nodeB.onMissedChanges();
+
+        assertEquals(1, cacheB.resets);
+        assertEquals(0, cacheA.resets);
+    }
+
+    private static class RecordingCache implements LocalCache {
+        private final List<EntityChangedEvent> events = new ArrayList<>();
+        private int resets;
+
+        @Override
+        public void invalidate(EntityChangedEvent event) {
+            events.add(event);
+        }
+
+        @Override
+        public void invalidateAll() {
+            resets++;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package ru.practicum.main_server.datasource;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Основная база и реплика - два разных H2: строка с id=1000 есть только на реплике, поэтому по результату
+ * запроса видно, куда ушла транзакция. Отставание реплики задается таблицей replica_lag.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing_primary",
+        "ewm.datasource.replica.urls=" + ReadReplicaRoutingTest.REPLICA_URL,
+        "ewm.datasource.replica.lag-query=select lag_seconds from replica_lag",
+        "ewm.datasource.replica.max-lag-seconds=5",
+        "ewm.datasource.replica.check-interval-ms=50"
+})
+class ReadReplicaRoutingTest {
+    static final String REPLICA_URL = "jdbc:h2:mem:routing_replica;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    ReadReplicas readReplicas;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+
+    @BeforeAll
+    static void createReplica() throws SQLException {
+        execute("create table if not exists categories (id bigint primary key, name varchar(100))",
+                "create table if not exists replica_lag (lag_seconds double)",
+                "delete from categories",
+                "delete from replica_lag",
+                "insert into categories values (1000, 'replica')",
+                "insert into replica_lag values (0)");
+    }
+
+    @Test
+    void readOnlyTransactionsGoToReplicaUntilItLags() throws Exception {
+        awaitReplicaAvailable(true);
+        assertEquals(1, countReplicaRows(true));
+        assertEquals(0, countReplicaRows(false));
+
+        execute("update replica_lag set lag_seconds = 60");
+        awaitReplicaAvailable(false);
+        assertEquals(0, countReplicaRows(true));
+
+        execute("update replica_lag set lag_seconds = 0");
+        awaitReplicaAvailable(true);
+        assertEquals(1, countReplicaRows(true));
+    }
+
+    private int countReplicaRows(boolean readOnly) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(readOnly);
+        return transaction.execute(status ->
+                jdbcTemplate.queryForObject("select count(*) from categories where id = 1000", Integer.class));
+    }
+
+    private void awaitReplicaAvailable(boolean available) throws InterruptedException {
+        Replica replica = readReplicas.getReplicas().get(0);
+        for (int i = 0; i < 100 && replica.isAvailable() != available; i++) {
+            Thread.sleep(50);
+        }
+        assertEquals(available, replica.isAvailable());
+    }
+
+    private static void execute(String... sql) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(REPLICA_URL, "test", "test");
+             Statement statement = connection.createStatement()) {
+            for (String query : sql) {
+                statement.execute(query);
+            }
+        }
+    }
+}
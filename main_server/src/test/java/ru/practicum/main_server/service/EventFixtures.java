@@ -0,0 +1,93 @@
+package ru.practicum.main_server.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import ru.practicum.main_server.model.Location;
+import ru.practicum.main_server.model.dto.NewCategoryDto;
+import ru.practicum.main_server.model.dto.NewEventDto;
+import ru.practicum.main_server.model.dto.NewUserRequest;
+import ru.practicum.main_server.service.admin_service.AdminCategoryService;
+import ru.practicum.main_server.service.admin_service.AdminEventService;
+import ru.practicum.main_server.service.admin_service.AdminUserService;
+import ru.practicum.main_server.service.private_service.PrivateEventService;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Общие для сервисных тестов пользователи, категории и события. Создает их через сервисы, как это делает API
+ */
+@Component
+public class EventFixtures {
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private final AdminUserService admUserService;
+    private final AdminCategoryService admCategoryService;
+    private final AdminEventService admEventService;
+    private final PrivateEventService privEventService;
+    private final AtomicInteger categories = new AtomicInteger();
+
+    @Autowired
+    public EventFixtures(AdminUserService admUserService,
+                         AdminCategoryService admCategoryService,
+                         AdminEventService admEventService,
+                         PrivateEventService privEventService) {
+        this.admUserService = admUserService;
+        this.admCategoryService = admCategoryService;
+        this.admEventService = admEventService;
+        this.privEventService = privEventService;
+    }
+
+    /**
+     * @return id пользователя с адресом name@mail.ru в нижнем регистре
+     */
+    public long createUser(String name) {
+        return admUserService.createUser(new NewUserRequest(name.toLowerCase() + "@mail.ru", name)).getId();
+    }
+
+    /**
+     * @return id категории с именем, которое не повторяется в пределах контекста
+     */
+    public long createCategory() {
+        return admCategoryService.createCategory(new NewCategoryDto("FIXTURE-" + categories.incrementAndGet()))
+                .getId();
+    }
+
+    /**
+     * Событие через сутки от текущего момента, остальные поля тест задает сам
+     */
+    public NewEventDto.NewEventDtoBuilder newEvent(long categoryId) {
+        return NewEventDto.builder()
+                .annotation("Аннотация тестового события")
+                .category(categoryId)
+                .description("Описание тестового события")
+                .eventDate(LocalDateTime.now().plusDays(1).format(FORMATTER))
+                .location(Location.builder().lat(55.75f).lon(37.61f).build())
+                .title("Тестовое событие");
+    }
+
+    public long createEvent(long initiator, NewEventDto event) {
+        return privEventService.createEvent(initiator, event).getId();
+    }
+
+    /**
+     * @return id события в новой категории, ожидающего модерации
+     */
+    public long createEvent(long initiator) {
+        return createEvent(initiator, newEvent(createCategory()).build());
+    }
+
+    public long createPublishedEvent(long initiator, NewEventDto event) {
+        long eventId = createEvent(initiator, event);
+        admEventService.publishEvent(eventId);
+        return eventId;
+    }
+
+    /**
+     * @return id опубликованного события в новой категории
+     */
+    public long createPublishedEvent(long initiator) {
+        return createPublishedEvent(initiator, newEvent(createCategory()).build());
+    }
+}
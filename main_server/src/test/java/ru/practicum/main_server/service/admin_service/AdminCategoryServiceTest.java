@@ -6,13 +6,12 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.main_server.exception.NotFoundException;
 import ru.practicum.main_server.model.dto.CategoryDto;
 import ru.practicum.main_server.model.dto.NewCategoryDto;
 import ru.practicum.main_server.repository.CategoryRepository;
 import ru.practicum.main_server.service.public_service.PublicCategoryService;
 
-import javax.persistence.EntityNotFoundException;
-
 import static org.junit.jupiter.api.Assertions.*;
 
 @Slf4j
@@ -33,6 +32,6 @@ class AdminCategoryServiceTest {
         CategoryDto cat2 = admService.createCategory(new NewCategoryDto("UNNAMED2"));
         admService.deleteCategory(cat.getId());
         assertEquals(cat2, pubService.readCategory(cat2.getId()));
-        assertThrows(EntityNotFoundException.class, () -> pubService.readCategory(cat.getId()));
+        assertThrows(NotFoundException.class, () -> pubService.readCategory(cat.getId()));
     }
 }
\ No newline at end of file
@@ -0,0 +1,85 @@
+package ru.practicum.main_server.service.admin_service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.main_server.model.CommentState;
+import ru.practicum.main_server.moderation.ApprovedCommentsRecount;
+import ru.practicum.main_server.model.dto.CommentDto;
+import ru.practicum.main_server.model.dto.CommentModerationResultDto;
+import ru.practicum.main_server.repository.EventRepository;
+import ru.practicum.main_server.service.EventFixtures;
+import ru.practicum.main_server.service.private_service.PrivateCommentService;
+import ru.practicum.main_server.service.public_service.PublicCommentService;
+
+import javax.persistence.EntityManager;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+class AdminCommentServiceTest {
+    @Autowired
+    AdminCommentService admCommentService;
+    @Autowired
+    EventFixtures fixtures;
+    @Autowired
+    PrivateCommentService privCommentService;
+    @Autowired
+    PublicCommentService pubCommentService;
+    @Autowired
+    EventRepository eventRepository;
+    @Autowired
+    ApprovedCommentsRecount approvedCommentsRecount;
+    @Autowired
+    EntityManager entityManager;
+
+    @Test
+    void approvedCommentsArePagedInCreationOrder() {
+        long user = fixtures.createUser("Commenter");
+        long eventId = fixtures.createPublishedEvent(user);
+        List<Long> comments = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            CommentDto comment = new CommentDto(null, "Комментарий " + i, null, null, null);
+            comments.add(privCommentService.createComment(user, eventId, comment).getId());
+        }
+
+        List<Long> approve = new ArrayList<>(comments.subList(0, 4));
+        approve.add(-1L);
+        List<CommentModerationResultDto> results = admCommentService.approveComments(approve);
+        assertEquals(4, results.stream().filter(CommentModerationResultDto::isUpdated).count());
+        assertNull(results.get(4).getState());
+        assertFalse(admCommentService.approveComments(List.of(comments.get(0))).get(0).isUpdated());
+
+        List<Long> read = new ArrayList<>();
+        List<CommentDto> page = pubCommentService.readEventComments(eventId, null, null, 3);
+        while (!page.isEmpty()) {
+            page.forEach(comment -> read.add(comment.getId()));
+            CommentDto last = page.get(page.size() - 1);
+            page = pubCommentService.readEventComments(eventId, last.getCreated(), last.getId(), 3);
+        }
+        assertEquals(comments.subList(0, 4), read);
+        assertEquals(1, admCommentService.readComments(CommentState.NEW, eventId, null, null, 20).size());
+
+        assertEquals(4, approvedComments(eventId));
+        admCommentService.rejectComments(List.of(comments.get(0), comments.get(4)));
+        admCommentService.approveComment(comments.get(4));
+        privCommentService.deleteComment(user, comments.get(1));
+        admCommentService.deleteComment(comments.get(2));
+        assertEquals(2, approvedComments(eventId));
+
+        eventRepository.addApprovedComments(eventId, 10);
+        assertTrue(approvedCommentsRecount.recount() > 0);
+        assertEquals(2, approvedComments(eventId));
+    }
+
+    private long approvedComments(long eventId) {
+        // счетчик меняется update-запросом в обход контекста, поэтому событие перечитывается из базы
+        entityManager.flush();
+        entityManager.clear();
+        return eventRepository.findById(eventId).orElseThrow().getApprovedComments();
+    }
+}
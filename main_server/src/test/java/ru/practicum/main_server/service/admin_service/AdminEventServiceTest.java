@@ -0,0 +1,78 @@
+package ru.practicum.main_server.service.admin_service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.main_server.model.State;
+import ru.practicum.main_server.model.dto.EventModerationResultDto;
+import ru.practicum.main_server.repository.EventRepository;
+import ru.practicum.main_server.service.EventFixtures;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+class AdminEventServiceTest {
+    @Autowired
+    AdminEventService admEventService;
+    @Autowired
+    EventFixtures fixtures;
+    @Autowired
+    EventRepository eventRepository;
+
+    long userId;
+    long categoryId;
+
+    @BeforeEach
+    void setUp() {
+        userId = fixtures.createUser("Moderation");
+        categoryId = fixtures.createCategory();
+    }
+
+    @Test
+    void publishEventsReportsEachId() {
+        long pending = createEvent();
+        long published = createEvent();
+        admEventService.publishEvent(published);
+        long soon = createEvent();
+        eventRepository.findById(soon).get().setEventDate(LocalDateTime.now().plusHours(1));
+
+        List<EventModerationResultDto> results = admEventService.publishEvents(
+                List.of(pending, published, soon, -1L, pending));
+
+        assertEquals(4, results.size());
+        assertEquals(new EventModerationResultDto(pending, true, State.PUBLISHED, null), results.get(0));
+        assertFalse(results.get(1).isUpdated());
+        assertEquals(State.PUBLISHED, results.get(1).getState());
+        assertFalse(results.get(2).isUpdated());
+        assertEquals(State.PENDING, results.get(2).getState());
+        assertFalse(results.get(3).isUpdated());
+        assertNull(results.get(3).getState());
+        assertEquals(State.PUBLISHED, eventRepository.findById(pending).get().getState());
+        assertNotNull(eventRepository.findById(pending).get().getPublishedOn());
+        assertEquals(State.PENDING, eventRepository.findById(soon).get().getState());
+    }
+
+    @Test
+    void rejectEventsKeepsPublished() {
+        long pending = createEvent();
+        long published = createEvent();
+        admEventService.publishEvent(published);
+
+        List<EventModerationResultDto> results = admEventService.rejectEvents(List.of(pending, published));
+
+        assertTrue(results.get(0).isUpdated());
+        assertFalse(results.get(1).isUpdated());
+        assertEquals(State.CANCELED, eventRepository.findById(pending).get().getState());
+        assertEquals(State.PUBLISHED, eventRepository.findById(published).get().getState());
+    }
+
+    private long createEvent() {
+        return fixtures.createEvent(userId, fixtures.newEvent(categoryId).participantLimit(10L).build());
+    }
+}
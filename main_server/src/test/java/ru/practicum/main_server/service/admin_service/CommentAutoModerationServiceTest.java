@@ -0,0 +1,80 @@
+package ru.practicum.main_server.service.admin_service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.main_server.model.CommentState;
+import ru.practicum.main_server.model.dto.CommentDto;
+import ru.practicum.main_server.repository.CommentModerationTaskRepository;
+import ru.practicum.main_server.repository.CommentRepository;
+import ru.practicum.main_server.repository.EventRepository;
+import ru.practicum.main_server.service.EventFixtures;
+import ru.practicum.main_server.service.private_service.PrivateCommentService;
+
+import javax.persistence.EntityManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "ewm.comments.moderation.banned-words=спам, реклама",
+        "ewm.comments.moderation.author-rate.max=3"})
+@Transactional
+class CommentAutoModerationServiceTest {
+    @Autowired
+    CommentAutoModerationService autoModerationService;
+    @Autowired
+    AdminCommentService admCommentService;
+    @Autowired
+    EventFixtures fixtures;
+    @Autowired
+    PrivateCommentService privCommentService;
+    @Autowired
+    CommentRepository commentRepository;
+    @Autowired
+    CommentModerationTaskRepository taskRepository;
+    @Autowired
+    EventRepository eventRepository;
+    @Autowired
+    EntityManager entityManager;
+
+    @Test
+    void queuedCommentsAreCheckedByRules() {
+        long author = fixtures.createUser("Author");
+        long other = fixtures.createUser("Other");
+        long eventId = fixtures.createPublishedEvent(author);
+
+        long fine = comment(author, eventId, "Хороший концерт");
+        long tooShort = comment(author, eventId, "a");
+        long banned = comment(author, eventId, "Купите СПАМ!");
+        long tooOften = comment(author, eventId, "Еще один комментарий");
+        long otherFine = comment(other, eventId, "Отличное событие");
+        long manual = comment(other, eventId, "Проверен вручную");
+        admCommentService.approveComment(manual);
+        assertEquals(6, taskRepository.count());
+
+        assertEquals(6, autoModerationService.processBatch(100));
+        assertEquals(0, autoModerationService.processBatch(100));
+        assertEquals(0, taskRepository.count());
+
+        assertEquals(CommentState.APPROVED, state(fine));
+        assertEquals(CommentState.REJECTED, state(tooShort));
+        assertEquals(CommentState.REJECTED, state(banned));
+        assertEquals(CommentState.REJECTED, state(tooOften));
+        assertEquals(CommentState.APPROVED, state(otherFine));
+        assertEquals(CommentState.APPROVED, state(manual));
+        entityManager.clear();
+        assertEquals(3, eventRepository.findById(eventId).orElseThrow().getApprovedComments());
+    }
+
+    private long comment(long userId, long eventId, String text) {
+        CommentDto comment = privCommentService.createComment(userId, eventId, new CommentDto(null, text, null, null,
+                null));
+        assertEquals(CommentState.NEW.toString(), comment.getState());
+        return comment.getId();
+    }
+
+    private CommentState state(long commentId) {
+        return commentRepository.findById(commentId).orElseThrow().getState();
+    }
+}
@@ -0,0 +1,81 @@
+package ru.practicum.main_server.service.admin_service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import ru.practicum.main_server.exception.ConflictException;
+import ru.practicum.main_server.model.dto.CategoryDto;
+import ru.practicum.main_server.model.dto.NewCategoryDto;
+import ru.practicum.main_server.model.dto.NewUserRequest;
+import ru.practicum.main_server.model.dto.UserDto;
+import ru.practicum.main_server.repository.CategoryRepository;
+import ru.practicum.main_server.repository.UserRepository;
+import ru.practicum.main_server.service.public_service.PublicCategoryService;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Справочники читаются из второго уровня кэша. Тест без @Transactional: каждое чтение идет в своей сессии,
+ * иначе его обслужит кэш первого уровня
+ */
+@Slf4j
+@SpringBootTest
+class ReferenceDataCacheTest {
+    private static final int READS = 20;
+
+    @Autowired
+    AdminCategoryService admCategoryService;
+    @Autowired
+    AdminUserService admUserService;
+    @Autowired
+    PublicCategoryService pubCategoryService;
+    @Autowired
+    CategoryRepository categoryRepository;
+    @Autowired
+    UserRepository userRepository;
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void referenceReadsAreServedFromCache() {
+        CategoryDto category = admCategoryService.createCategory(new NewCategoryDto("CACHED"));
+        UserDto user = admUserService.createUser(new NewUserRequest("cached@mail.ru", "Cached"));
+        // первое чтение кладет запись в кэш, если ее не положила туда вставка
+        categoryRepository.findById(category.getId());
+        userRepository.findById(user.getId());
+        statistics.clear();
+
+        for (int i = 0; i < READS; i++) {
+            assertEquals(category.getName(), categoryRepository.findById(category.getId()).get().getName());
+            assertTrue(userRepository.findById(user.getId()).isPresent());
+        }
+        assertThrows(ConflictException.class, () -> admCategoryService.createCategory(new NewCategoryDto("CACHED")));
+
+        long hits = statistics.getSecondLevelCacheHitCount();
+        long misses = statistics.getSecondLevelCacheMissCount();
+        double hitRatio = (double) hits / (hits + misses);
+        log.info("ReferenceDataCacheTest: попаданий {}, промахов {}, доля попаданий {}", hits, misses, hitRatio);
+        assertEquals(1.0, hitRatio, "доля попаданий во второй уровень кэша " + hitRatio);
+        assertTrue(statistics.getNaturalIdCacheHitCount() > 0);
+        assertEquals(0, statistics.getPrepareStatementCount());
+
+        admCategoryService.updateCategory(new CategoryDto(category.getId(), "RENAMED"));
+        assertEquals("RENAMED", pubCategoryService.readCategory(category.getId()).getName());
+        admUserService.deleteUser(user.getId());
+        assertFalse(userRepository.findById(user.getId()).isPresent());
+        admCategoryService.deleteCategory(category.getId());
+    }
+}
@@ -0,0 +1,55 @@
+package ru.practicum.main_server.service.private_service;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.main_server.client.StatisticClient;
+import ru.practicum.main_server.exception.BadRequestException;
+import ru.practicum.main_server.repository.EventRepository;
+import ru.practicum.main_server.service.EventFixtures;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+@Transactional
+class PrivateEventServiceTest {
+    @Autowired
+    PrivateEventService privEventService;
+    @Autowired
+    EventFixtures fixtures;
+    @Autowired
+    EventRepository eventRepository;
+    @MockBean
+    StatisticClient statClient;
+
+    @Test
+    void viewsSeriesIsValidatedAndBounded() {
+        long user = fixtures.createUser("Series");
+        long eventId = fixtures.createEvent(user);
+        LocalDateTime publishedOn = LocalDateTime.now().minusDays(30);
+        eventRepository.findById(eventId).orElseThrow().setPublishedOn(publishedOn);
+
+        assertThrows(BadRequestException.class, () -> privEventService.readEvent(user, eventId, "week"));
+        verifyNoInteractions(statClient);
+
+        privEventService.readEvent(user, eventId, "Day");
+        verify(statClient).getViewsSeries(eq(eventId), eq(publishedOn), any(), eq("day"));
+
+        // поминутный график за 30 дней урезается до последних MAX_SERIES_BUCKETS минут
+        privEventService.readEvent(user, eventId, "minute");
+        ArgumentCaptor<LocalDateTime> start = ArgumentCaptor.forClass(LocalDateTime.class);
+        ArgumentCaptor<LocalDateTime> end = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(statClient).getViewsSeries(eq(eventId), start.capture(), end.capture(), eq("minute"));
+        assertTrue(start.getValue().isAfter(publishedOn));
+        assertTrue(ChronoUnit.MINUTES.between(start.getValue(), end.getValue())
+                < PrivateEventService.MAX_SERIES_BUCKETS);
+    }
+}
@@ -0,0 +1,92 @@
+package ru.practicum.main_server.service.private_service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.main_server.exception.ForbiddenException;
+import ru.practicum.main_server.model.Status;
+import ru.practicum.main_server.model.dto.EventRequestStatusUpdateRequest;
+import ru.practicum.main_server.model.dto.EventRequestStatusUpdateResult;
+import ru.practicum.main_server.model.dto.ParticipationRequestDto;
+import ru.practicum.main_server.repository.ParticipationRequestRepository;
+import ru.practicum.main_server.service.EventFixtures;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@Transactional
+class PrivateParticipationRequestServiceTest {
+    @Autowired
+    PrivateParticipationRequestService requestService;
+    @Autowired
+    EventFixtures fixtures;
+    @Autowired
+    ParticipationRequestRepository requestRepository;
+
+    @Test
+    void confirmUpToLimitAndRejectTheRest() {
+        long initiator = fixtures.createUser("Initiator");
+        long eventId = createPublishedEvent(initiator, 2L, true);
+        List<Long> requests = createRequests(eventId, 4);
+
+        EventRequestStatusUpdateResult result = requestService.updateParticipationRequests(initiator, eventId,
+                new EventRequestStatusUpdateRequest(requests.subList(0, 3), Status.CONFIRMED));
+
+        assertEquals(requests.subList(0, 2), ids(result.getConfirmedRequests()));
+        assertEquals(requests.subList(2, 4), ids(result.getRejectedRequests()));
+        assertEquals(2, requestRepository.countByEventIdAndStatus(eventId, Status.CONFIRMED));
+        assertEquals(2, requestRepository.countByEventIdAndStatus(eventId, Status.REJECTED));
+        assertThrows(ForbiddenException.class, () -> requestService.updateParticipationRequests(initiator, eventId,
+                new EventRequestStatusUpdateRequest(List.of(requests.get(3)), Status.CONFIRMED)));
+    }
+
+    @Test
+    void approveRespectsLimit() {
+        long initiator = fixtures.createUser("Initiator");
+        long eventId = createPublishedEvent(initiator, 1L, true);
+        List<Long> requests = createRequests(eventId, 2);
+
+        assertEquals(Status.CONFIRMED.toString(),
+                requestService.approveParticipationRequest(initiator, eventId, requests.get(0)).getStatus());
+        assertThrows(ForbiddenException.class,
+                () -> requestService.approveParticipationRequest(initiator, eventId, requests.get(1)));
+        assertEquals(1, requestRepository.countByEventIdAndStatus(eventId, Status.CONFIRMED));
+        assertEquals(1, requestRepository.countByEventIdAndStatus(eventId, Status.REJECTED));
+    }
+
+    @Test
+    void autoConfirmRespectsLimit() {
+        long initiator = fixtures.createUser("Initiator");
+        long eventId = createPublishedEvent(initiator, 1L, false);
+        createRequests(eventId, 1);
+
+        long late = fixtures.createUser("Late");
+        assertThrows(ForbiddenException.class, () -> requestService.createParticipationRequest(late, eventId));
+        assertEquals(1, requestRepository.countByEventIdAndStatus(eventId, Status.CONFIRMED));
+    }
+
+    private long createPublishedEvent(long initiator, long participantLimit, boolean requestModeration) {
+        return fixtures.createPublishedEvent(initiator, fixtures.newEvent(fixtures.createCategory())
+                .participantLimit(participantLimit)
+                .requestModeration(requestModeration)
+                .build());
+    }
+
+    private List<Long> createRequests(long eventId, int count) {
+        List<Long> requests = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            long user = fixtures.createUser("Requester" + i);
+            requests.add(requestService.createParticipationRequest(user, eventId).getId());
+        }
+        return requests;
+    }
+
+    private static List<Long> ids(List<ParticipationRequestDto> requests) {
+        return requests.stream().map(ParticipationRequestDto::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,86 @@
+package ru.practicum.main_server.service.public_service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.main_server.client.StatisticClient;
+import ru.practicum.main_server.exception.BadRequestException;
+import ru.practicum.main_server.model.dto.CommentDto;
+import ru.practicum.main_server.service.EventFixtures;
+import ru.practicum.main_server.service.admin_service.AdminCommentService;
+import ru.practicum.main_server.service.private_service.PrivateCommentService;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+@Transactional
+class PublicEventServiceTest {
+    @Autowired
+    PublicEventService pubEventService;
+    @Autowired
+    EventFixtures fixtures;
+    @Autowired
+    PrivateCommentService privCommentService;
+    @Autowired
+    AdminCommentService admCommentService;
+    @MockBean
+    StatisticClient statClient;
+
+    @Test
+    void lastCommentsAreAttachedPerEventNewestFirst() {
+        when(statClient.getEventsWithViews(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        long user = fixtures.createUser("Previews");
+        long category = fixtures.createCategory();
+        long first = fixtures.createPublishedEvent(user, fixtures.newEvent(category).build());
+        long second = fixtures.createPublishedEvent(user, fixtures.newEvent(category).build());
+        long silent = fixtures.createPublishedEvent(user, fixtures.newEvent(category).build());
+        List<Long> firstComments = comment(user, first, 3);
+        List<Long> secondComments = comment(user, second, 1);
+        admCommentService.approveComments(firstComments.subList(0, 2));
+        admCommentService.approveComments(secondComments);
+
+        Map<Long, List<Long>> previews = new HashMap<>();
+        pubEventService.readEvents(null, List.of(category), null, null, null, null, null, 0, 10, 5)
+                .forEach(event -> previews.put(event.getId(), event.getLastComments().stream()
+                        .map(CommentDto::getId)
+                        .collect(Collectors.toList())));
+
+        assertEquals(List.of(firstComments.get(1), firstComments.get(0)), previews.get(first));
+        assertEquals(secondComments, previews.get(second));
+        assertEquals(List.of(), previews.get(silent));
+    }
+
+    @Test
+    void trendingIsBoundedBeforeAskingStatistics() {
+        assertThrows(BadRequestException.class, () -> pubEventService.readTrendingEvents(60, 0));
+        assertThrows(BadRequestException.class,
+                () -> pubEventService.readTrendingEvents(60, PublicEventService.MAX_TRENDING_K + 1));
+        assertThrows(BadRequestException.class, () -> pubEventService.readTrendingEvents(0, 10));
+        assertThrows(BadRequestException.class,
+                () -> pubEventService.readTrendingEvents(PublicEventService.MAX_TRENDING_WINDOW + 1, 10));
+        verifyNoInteractions(statClient);
+
+        assertTrue(pubEventService.readTrendingEvents(60, PublicEventService.MAX_TRENDING_K).isEmpty());
+        verify(statClient).getTrendingEventViews(60,
+                PublicEventService.MAX_TRENDING_K * PublicEventService.TRENDING_OVERFETCH);
+    }
+
+    private List<Long> comment(long userId, long eventId, int count) {
+        List<Long> comments = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            CommentDto comment = new CommentDto(null, "Комментарий " + i, null, null, null);
+            comments.add(privCommentService.createComment(userId, eventId, comment).getId());
+        }
+        return comments;
+    }
+}
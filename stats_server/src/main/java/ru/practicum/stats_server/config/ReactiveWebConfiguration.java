@@ -0,0 +1,74 @@
+package ru.practicum.stats_server.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.reactivestreams.Publisher;
+import org.springframework.boot.web.codec.CodecCustomizer;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.codec.cbor.Jackson2CborEncoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * Настройки профиля reactive
+ */
+@Configuration
+@Profile("reactive")
+public class ReactiveWebConfiguration {
+
+    /**
+     * Tomcat остается в classpath ради Spring MVC, а Spring Boot выбирает его раньше Netty
+     */
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    /**
+     * WebFlux в отличие от Spring MVC не регистрирует CBOR сам, а main_server запрашивает статистику в CBOR.
+     * Свои кодеки стоят перед стандартными, поэтому JSON регистрируется первым: без явного Accept ответ
+     * остается в JSON, как в Spring MVC. Маппер CBOR собирается тем же построителем, что и JSON;
+     * тип application/cbor задается явно, иначе кодеки CBOR заявляют типы JSON.
+     */
+    @Bean
+    public CodecCustomizer cborCodecCustomizer(ObjectMapper objectMapper, Jackson2ObjectMapperBuilder builder) {
+        ObjectMapper cborMapper = builder.factory(new CBORFactory()).build();
+        return configurer -> {
+            configurer.customCodecs().register(new Jackson2JsonEncoder(objectMapper));
+            configurer.customCodecs().register(new Jackson2CborDecoder(cborMapper, MediaType.APPLICATION_CBOR));
+            configurer.customCodecs().register(new SingleValueCborEncoder(cborMapper));
+        };
+    }
+
+    /**
+     * Jackson2CborEncoder в Spring 5.3 не кодирует поток, а EncoderHttpMessageWriter передает ему даже Mono.
+     * Ответы контроллера одиночные, поэтому кодируется одно значение.
+     */
+    private static class SingleValueCborEncoder extends Jackson2CborEncoder {
+
+        SingleValueCborEncoder(ObjectMapper mapper) {
+            super(mapper, MediaType.APPLICATION_CBOR);
+        }
+
+        @Override
+        public Flux<DataBuffer> encode(Publisher<?> inputStream, DataBufferFactory bufferFactory,
+                                       ResolvableType elementType, MimeType mimeType, Map<String, Object> hints) {
+            return Mono.from(inputStream)
+                    .map(value -> encodeValue(value, bufferFactory, elementType, mimeType, hints))
+                    .flux();
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package ru.practicum.stats_server.controller;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import ru.practicum.stats_server.dto.EndpointHitDto;
+import ru.practicum.stats_server.dto.SeriesPointDto;
+import ru.practicum.stats_server.dto.StatsQueryDto;
+import ru.practicum.stats_server.dto.ViewStats;
+import ru.practicum.stats_server.service.StatisticService;
+import ru.practicum.stats_server.service.TrendingService;
+
+import javax.validation.Valid;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Те же адреса, что у {@link StatisticController}, на WebFlux и Netty (профиль reactive). Прием хита в режиме
+ * wal не блокирует поток event loop: ответ уходит после fsync журнала. Запросы статистики идут в базу через JPA,
+ * поэтому выполняются на boundedElastic.
+ */
+@RestController
+@Profile("reactive")
+@Slf4j
+public class ReactiveStatisticController {
+    private final StatisticService statisticService;
+    private final TrendingService trendingService;
+    private final Scheduler scheduler = Schedulers.boundedElastic();
+    private final Duration ackTimeout;
+
+    public ReactiveStatisticController(StatisticService statisticService, TrendingService trendingService,
+                                       @Value("${stats.ingest.wal.ack-timeout-ms:5000}") long ackTimeoutMs) {
+        this.statisticService = statisticService;
+        this.trendingService = trendingService;
+        this.ackTimeout = Duration.ofMillis(ackTimeoutMs);
+    }
+
+    @PostMapping("/hit")
+    public Mono<EndpointHitDto> createHit(@RequestBody @Valid EndpointHitDto endpointHit) {
+        log.debug(":::POST /hit ReactiveStatisticController: создание просмотра: {}", endpointHit);
+        return Mono.fromFuture(() -> statisticService.addHitAsync(endpointHit, scheduler::schedule))
+                .timeout(ackTimeout)
+                .onErrorMap(TimeoutException.class,
+                        e -> new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "хит не записан в журнал"));
+    }
+
+    @GetMapping("/stats")
+    public Mono<List<ViewStats>> getViewStats(@RequestParam String start,
+                                              @RequestParam String end,
+                                              @RequestParam(required = false) List<String> uris,
+                                              @RequestParam(required = false) String uriPrefix,
+                                              @RequestParam(defaultValue = "false") Boolean unique,
+                                              @RequestParam(defaultValue = "false") Boolean aggregate) {
+        log.debug(":::GET /stats ReactiveStatisticController: получение статистики по адресам: {}, uriPrefix={}, " +
+                "start={}, end={}, aggregate={}", uris, uriPrefix, start, end, aggregate);
+        return Mono.fromCallable(() -> statisticService.getViewStats(start, end, uris, uriPrefix, unique, aggregate))
+                .subscribeOn(scheduler);
+    }
+
+    @PostMapping("/stats/query")
+    public Mono<Map<String, Long>> queryViewStats(@RequestBody @Valid StatsQueryDto query) {
+        log.debug(":::POST /stats/query ReactiveStatisticController: получение статистики start={}, end={}, " +
+                "uriPrefix={}, кол-во адресов={}", query.getStart(), query.getEnd(), query.getUriPrefix(),
+                query.getUris() == null ? 0 : query.getUris().size());
+        return Mono.fromCallable(() -> statisticService.queryViewStats(query))
+                .subscribeOn(scheduler);
+    }
+
+    @GetMapping("/stats/top")
+    public Map<String, Long> getTopUris(@RequestParam String app,
+                                        @RequestParam(defaultValue = "60") int window,
+                                        @RequestParam(required = false) String uriPrefix,
+                                        @RequestParam(defaultValue = "10") int k) {
+        log.debug(":::GET /stats/top ReactiveStatisticController: топ-{} адресов app={}, window={}, uriPrefix={}",
+                k, app, window, uriPrefix);
+        return trendingService.top(app, window, uriPrefix, k);
+    }
+
+    @GetMapping("/stats/series")
+    public Mono<List<SeriesPointDto>> getViewStatsSeries(@RequestParam String uri,
+                                                         @RequestParam String start,
+                                                         @RequestParam String end,
+                                                         @RequestParam(defaultValue = "hour") String bucket) {
+        log.debug(":::GET /stats/series ReactiveStatisticController: просмотры {} по интервалам {}, start={}, end={}",
+                uri, bucket, start, end);
+        return Mono.fromCallable(() -> statisticService.getViewStatsSeries(uri, start, end, bucket))
+                .subscribeOn(scheduler);
+    }
+}
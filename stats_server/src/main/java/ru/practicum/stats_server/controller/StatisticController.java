@@ -3,27 +3,35 @@ package ru.practicum.stats_server.controller;
 import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.stats_server.dto.EndpointHitDto;
+import ru.practicum.stats_server.dto.SeriesPointDto;
+import ru.practicum.stats_server.dto.StatsQueryDto;
 import ru.practicum.stats_server.dto.ViewStats;
 import ru.practicum.stats_server.service.StatisticService;
+import ru.practicum.stats_server.service.TrendingService;
 
 import javax.validation.Valid;
 import java.util.List;
+import java.util.Map;
 
 @RestController
+@Profile("!reactive")
 @Slf4j
 public class StatisticController {
     private final StatisticService statisticService;
+    private final TrendingService trendingService;
 
     @Autowired
-    public StatisticController(StatisticService statisticService) {
+    public StatisticController(StatisticService statisticService, TrendingService trendingService) {
         this.statisticService = statisticService;
+        this.trendingService = trendingService;
     }
 
     @PostMapping("/hit")
     public EndpointHitDto createHit(@RequestBody @Valid EndpointHitDto endpointHit) {
-        log.info(":::POST /hit StatisticController: создание просмотра: {}", endpointHit);
+        log.debug(":::POST /hit StatisticController: создание просмотра: {}", endpointHit);
         return statisticService.addHit(endpointHit);
     }
 
@@ -31,9 +39,40 @@ public class StatisticController {
     @GetMapping("/stats")
     public List<ViewStats> getViewStats(@RequestParam String start,
                                         @RequestParam String end,
-                                        @RequestParam List<String> uris,
-                                        @RequestParam(defaultValue = "false") Boolean unique) {
-        log.info(":::GET /stats StatisticController: получение статистики по адресам: {}, start={}, end={}", uris, start, end);
-        return statisticService.getViewStats(start, end, uris, unique);
+                                        @RequestParam(required = false) List<String> uris,
+                                        @RequestParam(required = false) String uriPrefix,
+                                        @RequestParam(defaultValue = "false") Boolean unique,
+                                        @RequestParam(defaultValue = "false") Boolean aggregate) {
+        log.debug(":::GET /stats StatisticController: получение статистики по адресам: {}, uriPrefix={}, start={}, " +
+                "end={}, aggregate={}", uris, uriPrefix, start, end, aggregate);
+        return statisticService.getViewStats(start, end, uris, uriPrefix, unique, aggregate);
+    }
+
+    @PostMapping("/stats/query")
+    public Map<String, Long> queryViewStats(@RequestBody @Valid StatsQueryDto query) {
+        log.debug(":::POST /stats/query StatisticController: получение статистики start={}, end={}, uriPrefix={}, " +
+                "кол-во адресов={}", query.getStart(), query.getEnd(), query.getUriPrefix(),
+                query.getUris() == null ? 0 : query.getUris().size());
+        return statisticService.queryViewStats(query);
+    }
+
+    @GetMapping("/stats/top")
+    public Map<String, Long> getTopUris(@RequestParam String app,
+                                        @RequestParam(defaultValue = "60") int window,
+                                        @RequestParam(required = false) String uriPrefix,
+                                        @RequestParam(defaultValue = "10") int k) {
+        log.debug(":::GET /stats/top StatisticController: топ-{} адресов app={}, window={}, uriPrefix={}",
+                k, app, window, uriPrefix);
+        return trendingService.top(app, window, uriPrefix, k);
+    }
+
+    @GetMapping("/stats/series")
+    public List<SeriesPointDto> getViewStatsSeries(@RequestParam String uri,
+                                                   @RequestParam String start,
+                                                   @RequestParam String end,
+                                                   @RequestParam(defaultValue = "hour") String bucket) {
+        log.debug(":::GET /stats/series StatisticController: просмотры {} по интервалам {}, start={}, end={}",
+                uri, bucket, start, end);
+        return statisticService.getViewStatsSeries(uri, start, end, bucket);
     }
 }
@@ -0,0 +1,13 @@
+package ru.practicum.stats_server.dto;
+
+import lombok.Value;
+
+/**
+ * Статистика, свернутая по префиксу адреса: uri содержит шаблон вида /events/*
+ */
+@Value
+public class AggregatedViewStats implements ViewStats {
+    String app;
+    String uri;
+    int hits;
+}
@@ -0,0 +1,10 @@
+package ru.practicum.stats_server.dto;
+
+/**
+ * Суммарное количество просмотров адресов одного приложения
+ */
+public interface AppHits {
+    String getApp();
+
+    long getHits();
+}
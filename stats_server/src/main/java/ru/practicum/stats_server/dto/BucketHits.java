@@ -0,0 +1,12 @@
+package ru.practicum.stats_server.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Количество просмотров за один интервал
+ */
+public interface BucketHits {
+    LocalDateTime getBucket();
+
+    long getHits();
+}
@@ -2,18 +2,34 @@ package ru.practicum.stats_server.dto;
 
 import lombok.Builder;
 import lombok.Data;
+import ru.practicum.stats_server.model.EndpointHit;
 
 import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Pattern;
+import javax.validation.constraints.Size;
 
+/**
+ * Хит проверяется до подтверждения клиенту: запись журнала занимает одну строку и должна поместиться
+ * в колонки таблицы stats, иначе ее не загрузит COPY
+ */
 @Data
 @Builder
 public class EndpointHitDto {
+    private static final String SINGLE_LINE = "[^\\r\\n]*";
+
     private Long id;
     @NotNull
+    @Size(max = EndpointHit.APP_LENGTH)
+    @Pattern(regexp = SINGLE_LINE)
     private String app;
     @NotNull
+    @Size(max = EndpointHit.URI_LENGTH)
+    @Pattern(regexp = SINGLE_LINE)
     private String uri;
     @NotNull
+    @Size(max = EndpointHit.IP_LENGTH)
+    @Pattern(regexp = SINGLE_LINE)
     private String ip;
     private String timestamp;
+    private String userAgent;
 }
@@ -0,0 +1,15 @@
+package ru.practicum.stats_server.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeriesPointDto {
+    private String bucket;
+    private long hits;
+}
@@ -0,0 +1,26 @@
+package ru.practicum.stats_server.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.validation.constraints.NotNull;
+import java.util.List;
+
+/**
+ * Тело запроса POST /stats/query: выборка просмотров по списку адресов или по префиксу адреса
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StatsQueryDto {
+    @NotNull
+    private String start;
+    @NotNull
+    private String end;
+    private List<String> uris;
+    private String uriPrefix;
+    private boolean unique;
+}
@@ -0,0 +1,22 @@
+package ru.practicum.stats_server.dto;
+
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Размер интервала для GET /stats/series
+ */
+public enum TimeBucket {
+    MINUTE(ChronoUnit.MINUTES),
+    HOUR(ChronoUnit.HOURS),
+    DAY(ChronoUnit.DAYS);
+
+    private final ChronoUnit unit;
+
+    TimeBucket(ChronoUnit unit) {
+        this.unit = unit;
+    }
+
+    public ChronoUnit getUnit() {
+        return unit;
+    }
+}
@@ -0,0 +1,10 @@
+package ru.practicum.stats_server.dto;
+
+/**
+ * Количество просмотров одного адреса
+ */
+public interface UriHits {
+    String getUri();
+
+    long getHits();
+}
@@ -0,0 +1,123 @@
+package ru.practicum.stats_server.ingest;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.stats_server.dto.EndpointHitDto;
+import ru.practicum.stats_server.model.EndpointHit;
+
+import java.time.ZoneOffset;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Фильтр хитов на входе: отбрасывает ботов по user-agent, хиты с заблокированных ip и повторы
+ * (ip, uri) внутри одного окна dedup-window-seconds. Повторы ищутся в ограниченном LRU, поэтому память
+ * не растет с трафиком. Отброшенные хиты не сохраняются, а считаются в метрике stats.hits.filtered.
+ * Ключ повтора занимается при приеме хита, чтобы параллельный повтор не прошел до сохранения первого, и
+ * освобождается через {@link #release}, если хит сохранить не удалось: иначе повтор клиента был бы отброшен.
+ */
+@Component
+public class HitFilter {
+    private final boolean enabled;
+    private final long dedupWindowSeconds;
+    private final List<String> blockedUserAgents;
+    private final Set<String> blockedIps;
+    private final Map<String, Boolean> recentHits;
+    private final Counter duplicates;
+    private final Counter bots;
+    private final Counter blockedIpHits;
+
+    public HitFilter(MeterRegistry meterRegistry,
+                     @Value("${stats.filter.enabled:false}") boolean enabled,
+                     @Value("${stats.filter.dedup-window-seconds:1}") long dedupWindowSeconds,
+                     @Value("${stats.filter.dedup-capacity:100000}") int dedupCapacity,
+                     @Value("${stats.filter.blocked-user-agents:}") List<String> blockedUserAgents,
+                     @Value("${stats.filter.blocked-ips:}") Set<String> blockedIps) {
+        this.enabled = enabled;
+        this.dedupWindowSeconds = dedupWindowSeconds;
+        this.blockedUserAgents = blockedUserAgents.stream()
+                .filter(agent -> !agent.trim().isEmpty())
+                .map(agent -> agent.trim().toLowerCase(Locale.ROOT))
+                .collect(Collectors.toList());
+        this.blockedIps = blockedIps.stream()
+                .filter(ip -> !ip.trim().isEmpty())
+                .map(String::trim)
+                .collect(Collectors.toSet());
+        this.recentHits = new LinkedHashMap<String, Boolean>(dedupCapacity, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > dedupCapacity;
+            }
+        };
+        this.duplicates = filteredCounter(meterRegistry, "duplicate");
+        this.bots = filteredCounter(meterRegistry, "user_agent");
+        this.blockedIpHits = filteredCounter(meterRegistry, "ip");
+    }
+
+    /**
+     * @return true, если хит нужно сохранить
+     */
+    public boolean accept(EndpointHitDto dto, EndpointHit hit) {
+        if (!enabled) {
+            return true;
+        }
+        if (blockedIps.contains(hit.getIp())) {
+            blockedIpHits.increment();
+            return false;
+        }
+        if (isBot(dto.getUserAgent())) {
+            bots.increment();
+            return false;
+        }
+        synchronized (recentHits) {
+            if (recentHits.putIfAbsent(dedupKey(hit), Boolean.TRUE) != null) {
+                duplicates.increment();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Освобождает ключ повтора хита, принятого {@link #accept}, но не сохраненного.
+     */
+    public void release(EndpointHit hit) {
+        if (!enabled) {
+            return;
+        }
+        synchronized (recentHits) {
+            recentHits.remove(dedupKey(hit));
+        }
+    }
+
+    private String dedupKey(EndpointHit hit) {
+        long window = hit.getTimestamp().toEpochSecond(ZoneOffset.UTC) / dedupWindowSeconds;
+        return hit.getIp() + '|' + hit.getUri() + '|' + window;
+    }
+
+    private boolean isBot(String userAgent) {
+        if (userAgent == null || blockedUserAgents.isEmpty()) {
+            return false;
+        }
+        String agent = userAgent.toLowerCase(Locale.ROOT);
+        for (String blocked : blockedUserAgents) {
+            if (agent.contains(blocked)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Counter filteredCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("stats.hits.filtered")
+                .description("Хиты, отброшенные фильтром на входе")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+}
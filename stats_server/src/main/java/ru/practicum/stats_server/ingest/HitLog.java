@@ -0,0 +1,295 @@
+package ru.practicum.stats_server.ingest;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import ru.practicum.stats_server.model.EndpointHit;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Журнал приема хитов. Хиты копятся в очереди, один поток пишет их пачкой в текущий сегмент и делает один
+ * fsync на всю пачку (group commit), после чего подтверждает все хиты пачки. Заполненный или простаивающий
+ * сегмент закрывается и переименовывается в *.log, откуда его забирает {@link HitLogLoader}.
+ * Если запись или fsync пачки не удались, сегмент обрезается до конца последней подтвержденной пачки
+ * и закрывается, следующая пачка пишется в новый сегмент: в журнал не попадают ни оборванные строки,
+ * ни хиты, о которых клиенту ответили ошибкой. После создания и переименования сегмента fsync делается
+ * и для каталога журнала, иначе после отключения питания подтвержденный хит может пропасть вместе с записью
+ * каталога о файле.
+ */
+@Slf4j
+@Lazy(false)
+@Component
+@ConditionalOnProperty(name = "stats.ingest.mode", havingValue = "wal")
+public class HitLog {
+    static final String OPEN_SUFFIX = ".open";
+    static final String SEALED_SUFFIX = ".log";
+    static final String BAD_SUFFIX = ".bad";
+
+    private final Path dir;
+    private final long segmentSize;
+    private final int maxBatch;
+    private final long rollIntervalMs;
+    private final BlockingQueue<PendingHit> queue;
+    private final Thread writer = new Thread(this::writeLoop, "hit-log-writer");
+    private final DistributionSummary batchSize;
+    private final Timer fsyncTimer;
+
+    private volatile boolean running = true;
+    private FileChannel channel;
+    private Path segment;
+    private long syncedSize;
+    private long segmentOpenedAt;
+    private int segmentSeq;
+
+    public HitLog(MeterRegistry meterRegistry,
+                  @Value("${stats.ingest.wal.dir:wal}") String dir,
+                  @Value("${stats.ingest.wal.segment-size:16777216}") long segmentSize,
+                  @Value("${stats.ingest.wal.max-batch:1024}") int maxBatch,
+                  @Value("${stats.ingest.wal.roll-interval-ms:1000}") long rollIntervalMs,
+                  @Value("${stats.ingest.wal.queue-capacity:65536}") int queueCapacity) {
+        this.dir = Paths.get(dir);
+        this.segmentSize = segmentSize;
+        this.maxBatch = maxBatch;
+        this.rollIntervalMs = rollIntervalMs;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = DistributionSummary.builder("stats.ingest.wal.batch")
+                .description("Количество хитов в одной пачке журнала")
+                .register(meterRegistry);
+        this.fsyncTimer = Timer.builder("stats.ingest.wal.fsync")
+                .description("Время записи и fsync одной пачки журнала")
+                .register(meterRegistry);
+        Gauge.builder("stats.ingest.wal.queue", queue, BlockingQueue::size)
+                .description("Хиты, ожидающие записи в журнал")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Сегменты, оставшиеся открытыми после падения, закрываются до старта писателя и будут загружены в базу
+     */
+    @PostConstruct
+    void start() throws IOException {
+        Files.createDirectories(dir);
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path open : (Iterable<Path>) files.filter(p -> p.toString().endsWith(OPEN_SUFFIX))::iterator) {
+                log.info("HitLog: восстановление незакрытого сегмента {}", open);
+                seal(open);
+            }
+        }
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Ставит хит в очередь на запись, ожидая место в очереди не дольше timeout
+     *
+     * @return future, которое завершается после fsync сегмента с этим хитом или
+     * {@link RejectedExecutionException}, если место в очереди за timeout не освободилось
+     */
+    public CompletableFuture<Void> append(EndpointHit hit, long timeout, TimeUnit unit) throws InterruptedException {
+        PendingHit pending = new PendingHit(hit, new CompletableFuture<>());
+        if (!queue.offer(pending, timeout, unit)) {
+            pending.ack.completeExceptionally(new RejectedExecutionException("очередь журнала заполнена"));
+        }
+        return pending.ack;
+    }
+
+    /**
+     * Неблокирующий вариант {@link #append(EndpointHit, long, TimeUnit)}: при заполненной очереди сразу возвращает
+     * future, завершенное {@link RejectedExecutionException}
+     */
+    public CompletableFuture<Void> tryAppend(EndpointHit hit) {
+        PendingHit pending = new PendingHit(hit, new CompletableFuture<>());
+        if (!queue.offer(pending)) {
+            pending.ack.completeExceptionally(new RejectedExecutionException("очередь журнала заполнена"));
+        }
+        return pending.ack;
+    }
+
+    Path getDir() {
+        return dir;
+    }
+
+    /**
+     * Писатель не прерывается: прерывание закрыло бы FileChannel посреди записи. Он дописывает очередь
+     * и выходит по таймауту ожидания.
+     */
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        writer.join(rollIntervalMs + TimeUnit.SECONDS.toMillis(10));
+    }
+
+    private void writeLoop() {
+        List<PendingHit> batch = new ArrayList<>(maxBatch);
+        StringBuilder lines = new StringBuilder();
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingHit first = queue.poll(rollIntervalMs, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    batch.add(first);
+                    queue.drainTo(batch, maxBatch - 1);
+                    writeBatch(batch, lines);
+                }
+                rollIfNeeded();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("HitLog: ошибка записи пачки из {} хитов", batch.size(), e);
+                batch.forEach(pending -> pending.ack.completeExceptionally(e));
+            } finally {
+                batch.clear();
+                lines.setLength(0);
+            }
+        }
+        closeSegment();
+    }
+
+    private void writeBatch(List<PendingHit> batch, StringBuilder lines) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        for (PendingHit pending : batch) {
+            HitLogFormat.append(lines, pending.hit);
+        }
+        long started = System.nanoTime();
+        try {
+            if (channel == null) {
+                openSegment();
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(lines.toString().getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+            syncedSize = channel.position();
+        } catch (IOException e) {
+            abandonSegment();
+            throw new UncheckedIOException(e);
+        }
+        fsyncTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        batchSize.record(batch.size());
+        batch.forEach(pending -> pending.ack.complete(null));
+    }
+
+    private void rollIfNeeded() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            if (channel.size() >= segmentSize || System.currentTimeMillis() - segmentOpenedAt >= rollIntervalMs) {
+                closeSegment();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void openSegment() throws IOException {
+        segmentOpenedAt = System.currentTimeMillis();
+        segment = dir.resolve(String.format("hits-%013d-%06d%s", segmentOpenedAt, ++segmentSeq, OPEN_SUFFIX));
+        channel = FileChannel.open(segment, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        syncedSize = 0;
+        syncDir();
+    }
+
+    private void syncDir() throws IOException {
+        try (FileChannel dirChannel = FileChannel.open(dir, StandardOpenOption.READ)) {
+            dirChannel.force(true);
+        }
+    }
+
+    /**
+     * Закрывает сегмент после неудачной пачки, отрезав ее байты. Если обрезать не удалось, сегмент
+     * откладывается в *.bad: в нем есть подтвержденные хиты, но вместе с ними и неподтвержденные
+     */
+    private void abandonSegment() {
+        if (channel == null) {
+            return;
+        }
+        Path abandoned = segment;
+        boolean truncated = false;
+        try {
+            channel.truncate(syncedSize);
+            channel.force(false);
+            truncated = true;
+        } catch (IOException e) {
+            log.error("HitLog: не удалось обрезать сегмент {} до {} байт", abandoned, syncedSize, e);
+        }
+        try {
+            channel.close();
+            if (truncated) {
+                seal(abandoned);
+            } else {
+                rename(abandoned, BAD_SUFFIX);
+            }
+        } catch (IOException e) {
+            log.error("HitLog: не удалось закрыть сегмент {}", abandoned, e);
+        } finally {
+            channel = null;
+            segment = null;
+        }
+    }
+
+    private void closeSegment() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+            seal(segment);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            channel = null;
+            segment = null;
+        }
+    }
+
+    private void seal(Path open) throws IOException {
+        rename(open, SEALED_SUFFIX);
+    }
+
+    private void rename(Path open, String suffix) throws IOException {
+        String name = open.getFileName().toString();
+        Path renamed = open.resolveSibling(name.substring(0, name.length() - OPEN_SUFFIX.length()) + suffix);
+        Files.move(open, renamed, StandardCopyOption.ATOMIC_MOVE);
+        syncDir();
+    }
+
+    private static class PendingHit {
+        private final EndpointHit hit;
+        private final CompletableFuture<Void> ack;
+
+        private PendingHit(EndpointHit hit, CompletableFuture<Void> ack) {
+            this.hit = hit;
+            this.ack = ack;
+        }
+    }
+}
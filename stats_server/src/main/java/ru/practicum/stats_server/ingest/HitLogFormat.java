@@ -0,0 +1,101 @@
+package ru.practicum.stats_server.ingest;
+
+import lombok.experimental.UtilityClass;
+import ru.practicum.stats_server.model.EndpointHit;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Формат записи хита в сегменте журнала: строка CSV app,uri,ip,timestamp в том виде,
+ * в каком ее принимает COPY ... WITH (FORMAT csv). Перевод строки внутри кавычек не завершает запись.
+ */
+@UtilityClass
+class HitLogFormat {
+    private static final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    static void append(StringBuilder line, EndpointHit hit) {
+        quote(line, hit.getApp()).append(',');
+        quote(line, hit.getUri()).append(',');
+        quote(line, hit.getIp()).append(',');
+        line.append(hit.getTimestamp().format(formatter)).append('\n');
+    }
+
+    /**
+     * Делит содержимое сегмента на записи по переводам строки вне кавычек. Пустые строки пропускаются
+     */
+    static List<String> records(String content) {
+        List<String> records = new ArrayList<>();
+        boolean quoted = false;
+        int start = 0;
+        for (int i = 0; i < content.length(); i++) {
+            char c = content.charAt(i);
+            if (c == '"') {
+                quoted = !quoted;
+            } else if (c == '\n' && !quoted) {
+                if (i > start) {
+                    records.add(content.substring(start, i));
+                }
+                start = i + 1;
+            }
+        }
+        if (start < content.length()) {
+            records.add(content.substring(start));
+        }
+        return records;
+    }
+
+    /**
+     * @throws IllegalArgumentException если запись не разбирается или поле длиннее колонки таблицы stats
+     */
+    static EndpointHit parse(String line) {
+        List<String> fields = new ArrayList<>(4);
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        if (fields.size() != 4) {
+            throw new IllegalArgumentException("битая запись журнала: " + line);
+        }
+        checkLength(fields.get(0), EndpointHit.APP_LENGTH, "app");
+        checkLength(fields.get(1), EndpointHit.URI_LENGTH, "uri");
+        checkLength(fields.get(2), EndpointHit.IP_LENGTH, "ip");
+        return EndpointHit.builder()
+                .app(fields.get(0))
+                .uri(fields.get(1))
+                .ip(fields.get(2))
+                .timestamp(LocalDateTime.parse(fields.get(3), formatter))
+                .build();
+    }
+
+    private static void checkLength(String value, int maxLength, String column) {
+        if (value.length() > maxLength) {
+            throw new IllegalArgumentException(String.format("%s длиннее %d символов", column, maxLength));
+        }
+    }
+
+    private static StringBuilder quote(StringBuilder line, String value) {
+        return line.append('"').append(value.replace("\"", "\"\"")).append('"');
+    }
+}
@@ -0,0 +1,206 @@
+package ru.practicum.stats_server.ingest;
+
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.stats_server.model.EndpointHit;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Переносит закрытые сегменты журнала в таблицу stats. В Postgres сегмент загружается одним COPY, в остальных
+ * базах (H2 в тестах) - пакетной вставкой. Имя сегмента записывается в stats_loaded_segments в той же транзакции,
+ * поэтому сегмент, загруженный перед падением, но не успевший удалиться, при повторе пропускается.
+ * Сегмент разбирается по записям: запись, которая не разбирается или не помещается в колонки, пропускается
+ * с ошибкой в логе, остальные хиты сегмента загружаются. Сегмент, который COPY все же отклонил как ошибку
+ * данных, переименовывается в *.bad и не задерживает следующие; при ошибке базы загрузка останавливается
+ * и повторяется целиком.
+ */
+@Slf4j
+@Lazy(false)
+@Component
+@ConditionalOnProperty(name = "stats.ingest.mode", havingValue = "wal")
+public class HitLogLoader {
+    private static final String COPY_SQL = "COPY stats (app, uri, ip, timestamp) FROM STDIN WITH (FORMAT csv)";
+    private static final String INSERT_SQL = "INSERT INTO stats (app, uri, ip, timestamp) VALUES (?, ?, ?, ?)";
+
+    private final HitLog hitLog;
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final long loadIntervalMs;
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "hit-log-loader");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private boolean postgres;
+
+    public HitLogLoader(HitLog hitLog, DataSource dataSource, PlatformTransactionManager transactionManager,
+                        @Value("${stats.ingest.wal.load-interval-ms:1000}") long loadIntervalMs) {
+        this.hitLog = hitLog;
+        this.dataSource = dataSource;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.loadIntervalMs = loadIntervalMs;
+    }
+
+    @PostConstruct
+    void start() throws SQLException {
+        try (Connection connection = dataSource.getConnection()) {
+            postgres = connection.isWrapperFor(PGConnection.class);
+        }
+        executor.scheduleWithFixedDelay(this::loadSealedSegments, 0, loadIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.MINUTES);
+    }
+
+    void loadSealedSegments() {
+        List<Path> segments;
+        try (Stream<Path> files = Files.list(hitLog.getDir())) {
+            segments = files.filter(p -> p.toString().endsWith(HitLog.SEALED_SUFFIX))
+                    .sorted()
+                    .collect(Collectors.toList());
+        } catch (IOException e) {
+            log.error("HitLogLoader: не удалось прочитать каталог журнала {}", hitLog.getDir(), e);
+            return;
+        }
+        for (Path segment : segments) {
+            try {
+                load(segment);
+                Files.delete(segment);
+            } catch (CorruptSegmentException e) {
+                quarantine(segment, e);
+            } catch (Exception e) {
+                log.error("HitLogLoader: не удалось загрузить сегмент {}, повтор через {} мс", segment,
+                        loadIntervalMs, e);
+                return;
+            }
+        }
+    }
+
+    private void load(Path segment) throws IOException {
+        String name = segment.getFileName().toString();
+        byte[] content = Files.readAllBytes(segment);
+        int length = completeLinesLength(content);
+        List<EndpointHit> hits = parse(new String(content, 0, length, StandardCharsets.UTF_8), name);
+        transactionTemplate.executeWithoutResult(status -> {
+            Integer loaded = jdbcTemplate.queryForObject(
+                    "SELECT count(*) FROM stats_loaded_segments WHERE name = ?", Integer.class, name);
+            if (loaded != null && loaded > 0) {
+                log.info("HitLogLoader: сегмент {} уже загружен", name);
+                return;
+            }
+            if (postgres) {
+                copy(hits, name);
+            } else {
+                insert(hits);
+            }
+            jdbcTemplate.update("INSERT INTO stats_loaded_segments (name, loaded_at) VALUES (?, now())", name);
+        });
+        log.debug("HitLogLoader: загружен сегмент {} ({} хитов)", name, hits.size());
+    }
+
+    /**
+     * В COPY уходят заново записанные разобранные хиты, а не байты сегмента, чтобы пропущенные записи
+     * не попали в базу
+     */
+    private void copy(List<EndpointHit> hits, String name) {
+        StringBuilder lines = new StringBuilder();
+        hits.forEach(hit -> HitLogFormat.append(lines, hit));
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        try {
+            connection.unwrap(PGConnection.class).getCopyAPI()
+                    .copyIn(COPY_SQL, new ByteArrayInputStream(lines.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (SQLException e) {
+            // класс 22 - ошибка в данных (длина, формат), такой сегмент не загрузится и при повторе
+            if (e.getSQLState() != null && e.getSQLState().startsWith("22")) {
+                throw new CorruptSegmentException(name, e);
+            }
+            throw new IllegalStateException("COPY сегмента журнала завершился ошибкой", e);
+        } catch (IOException e) {
+            throw new IllegalStateException("COPY сегмента журнала завершился ошибкой", e);
+        }
+    }
+
+    private void insert(List<EndpointHit> hits) {
+        List<Object[]> rows = new ArrayList<>(hits.size());
+        for (EndpointHit hit : hits) {
+            rows.add(new Object[]{hit.getApp(), hit.getUri(), hit.getIp(), Timestamp.valueOf(hit.getTimestamp())});
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, rows);
+    }
+
+    /**
+     * Разбирает все записи до загрузки: одна битая запись не должна задерживать подтвержденные хиты сегмента
+     */
+    private List<EndpointHit> parse(String content, String name) {
+        List<EndpointHit> hits = new ArrayList<>();
+        for (String record : HitLogFormat.records(content)) {
+            try {
+                hits.add(HitLogFormat.parse(record));
+            } catch (RuntimeException e) {
+                log.error("HitLogLoader: запись сегмента {} пропущена: {}", name, e.getMessage());
+            }
+        }
+        return hits;
+    }
+
+    private void quarantine(Path segment, CorruptSegmentException e) {
+        String name = segment.getFileName().toString();
+        Path bad = segment.resolveSibling(name.substring(0, name.length() - HitLog.SEALED_SUFFIX.length())
+                + HitLog.BAD_SUFFIX);
+        try {
+            Files.move(segment, bad, StandardCopyOption.ATOMIC_MOVE);
+            log.error("HitLogLoader: сегмент {} не разбирается, отложен в {}", name, bad.getFileName(), e);
+        } catch (IOException moveError) {
+            log.error("HitLogLoader: не удалось отложить битый сегмент {}", name, moveError);
+        }
+    }
+
+    /**
+     * Оборванная при падении последняя строка не была подтверждена клиенту и отбрасывается
+     */
+    private int completeLinesLength(byte[] content) {
+        int length = content.length;
+        while (length > 0 && content[length - 1] != '\n') {
+            length--;
+        }
+        return length;
+    }
+
+    private static class CorruptSegmentException extends RuntimeException {
+        private CorruptSegmentException(String name, Throwable cause) {
+            super("битый сегмент журнала " + name, cause);
+        }
+    }
+}
@@ -15,14 +15,22 @@ import java.time.LocalDateTime;
 @Entity
 @Table(name = "stats")
 public class EndpointHit {
+    /**
+     * Длины колонок таблицы stats: по ним хит проверяется при приеме, до записи в журнал
+     */
+    public static final int APP_LENGTH = 50;
+    public static final int URI_LENGTH = 256;
+    public static final int IP_LENGTH = 50;
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "stats_id_seq")
+    @SequenceGenerator(name = "stats_id_seq", sequenceName = "stats_id_seq", allocationSize = 50)
     private Long id;
-    @Column(name = "app", length = 50)
+    @Column(name = "app", length = APP_LENGTH)
     private String app;
-    @Column(name = "uri", length = 254)
+    @Column(name = "uri", length = URI_LENGTH)
     private String uri;
-    @Column(name = "ip", length = 50)
+    @Column(name = "ip", length = IP_LENGTH)
     private String ip;
     @JsonFormat(shape = JsonFormat.Shape.STRING, pattern = "yyyy-MM-dd HH:mm:ss")
     @Column(name = "timestamp")
@@ -3,12 +3,34 @@ package ru.practicum.stats_server.repository;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import ru.practicum.stats_server.model.EndpointHit;
+import ru.practicum.stats_server.dto.AppHits;
+import ru.practicum.stats_server.dto.BucketHits;
+import ru.practicum.stats_server.dto.TimeBucket;
+import ru.practicum.stats_server.dto.UriHits;
 import ru.practicum.stats_server.dto.ViewStats;
 
 import java.time.LocalDateTime;
 import java.util.List;
 
+/**
+ * Запросы по префиксу адреса ищут его через LIKE с символом экранирования '!': префикс передается
+ * после {@link #escapeLike}, чтобы % и _ в адресе не работали как шаблон.
+ */
 public interface HitRepository extends JpaRepository<EndpointHit, Long> {
+    /**
+     * Экранирует в префиксе адреса символы шаблона LIKE и сам символ экранирования
+     */
+    static String escapeLike(String uriPrefix) {
+        StringBuilder escaped = new StringBuilder(uriPrefix.length() + 8);
+        for (int i = 0; i < uriPrefix.length(); i++) {
+            char c = uriPrefix.charAt(i);
+            if (c == '%' || c == '_' || c == '!') {
+                escaped.append('!');
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
 
     @Query("SELECT e.app AS app, e.uri AS uri, count(e.uri) AS hits " +
             "FROM EndpointHit e " +
@@ -23,4 +45,100 @@ public interface HitRepository extends JpaRepository<EndpointHit, Long> {
             "AND e.uri IN :uris " +
             "GROUP BY (e.app), (e.uri), (e.ip)")
     List<ViewStats> getViewStatsListByParamsUnique(LocalDateTime start, LocalDateTime end, List<String> uris);
+
+    @Query("SELECT e.uri AS uri, count(e.uri) AS hits " +
+            "FROM EndpointHit e " +
+            "WHERE (e.timestamp BETWEEN :start AND :end) " +
+            "AND e.uri IN :uris " +
+            "GROUP BY (e.uri)")
+    List<UriHits> countHitsByUris(LocalDateTime start, LocalDateTime end, List<String> uris);
+
+    @Query("SELECT e.uri AS uri, count(DISTINCT e.ip) AS hits " +
+            "FROM EndpointHit e " +
+            "WHERE (e.timestamp BETWEEN :start AND :end) " +
+            "AND e.uri IN :uris " +
+            "GROUP BY (e.uri)")
+    List<UriHits> countUniqueHitsByUris(LocalDateTime start, LocalDateTime end, List<String> uris);
+
+    @Query("SELECT e.uri AS uri, count(e.uri) AS hits " +
+            "FROM EndpointHit e " +
+            "WHERE (e.timestamp BETWEEN :start AND :end) " +
+            "AND e.uri LIKE CONCAT(:uriPrefix, '%') ESCAPE '!' " +
+            "GROUP BY (e.uri)")
+    List<UriHits> countHitsByUriPrefix(LocalDateTime start, LocalDateTime end, String uriPrefix);
+
+    @Query("SELECT e.uri AS uri, count(DISTINCT e.ip) AS hits " +
+            "FROM EndpointHit e " +
+            "WHERE (e.timestamp BETWEEN :start AND :end) " +
+            "AND e.uri LIKE CONCAT(:uriPrefix, '%') ESCAPE '!' " +
+            "GROUP BY (e.uri)")
+    List<UriHits> countUniqueHitsByUriPrefix(LocalDateTime start, LocalDateTime end, String uriPrefix);
+
+    @Query("SELECT e.app AS app, e.uri AS uri, count(e.uri) AS hits " +
+            "FROM EndpointHit e " +
+            "WHERE (e.timestamp BETWEEN :start AND :end) " +
+            "AND e.uri LIKE CONCAT(:uriPrefix, '%') ESCAPE '!' " +
+            "GROUP BY (e.app), (e.uri)")
+    List<ViewStats> getViewStatsListByUriPrefix(LocalDateTime start, LocalDateTime end, String uriPrefix);
+
+    @Query("SELECT e.app AS app, e.uri AS uri, count(DISTINCT e.ip) AS hits " +
+            "FROM EndpointHit e " +
+            "WHERE (e.timestamp BETWEEN :start AND :end) " +
+            "AND e.uri LIKE CONCAT(:uriPrefix, '%') ESCAPE '!' " +
+            "GROUP BY (e.app), (e.uri)")
+    List<ViewStats> getViewStatsListByUriPrefixUnique(LocalDateTime start, LocalDateTime end, String uriPrefix);
+
+    @Query("SELECT e.app AS app, count(e.uri) AS hits " +
+            "FROM EndpointHit e " +
+            "WHERE (e.timestamp BETWEEN :start AND :end) " +
+            "AND e.uri LIKE CONCAT(:uriPrefix, '%') ESCAPE '!' " +
+            "GROUP BY (e.app)")
+    List<AppHits> countHitsByAppAndUriPrefix(LocalDateTime start, LocalDateTime end, String uriPrefix);
+
+    @Query("SELECT e.app AS app, count(DISTINCT e.ip) AS hits " +
+            "FROM EndpointHit e " +
+            "WHERE (e.timestamp BETWEEN :start AND :end) " +
+            "AND e.uri LIKE CONCAT(:uriPrefix, '%') ESCAPE '!' " +
+            "GROUP BY (e.app)")
+    List<AppHits> countUniqueHitsByAppAndUriPrefix(LocalDateTime start, LocalDateTime end, String uriPrefix);
+
+    /**
+     * Количество просмотров адреса по интервалам. Размер интервала подставляется в date_trunc литералом,
+     * поэтому для каждого интервала свой запрос.
+     */
+    default List<BucketHits> countHitsByBucket(String uri, LocalDateTime start, LocalDateTime end,
+                                               TimeBucket bucket) {
+        switch (bucket) {
+            case MINUTE:
+                return countHitsByMinute(uri, start, end);
+            case DAY:
+                return countHitsByDay(uri, start, end);
+            default:
+                return countHitsByHour(uri, start, end);
+        }
+    }
+
+    @Query(value = "SELECT date_trunc('minute', s.timestamp) AS bucket, count(*) AS hits " +
+            "FROM stats s " +
+            "WHERE s.uri = :uri " +
+            "AND s.timestamp BETWEEN :start AND :end " +
+            "GROUP BY date_trunc('minute', s.timestamp) " +
+            "ORDER BY bucket", nativeQuery = true)
+    List<BucketHits> countHitsByMinute(String uri, LocalDateTime start, LocalDateTime end);
+
+    @Query(value = "SELECT date_trunc('hour', s.timestamp) AS bucket, count(*) AS hits " +
+            "FROM stats s " +
+            "WHERE s.uri = :uri " +
+            "AND s.timestamp BETWEEN :start AND :end " +
+            "GROUP BY date_trunc('hour', s.timestamp) " +
+            "ORDER BY bucket", nativeQuery = true)
+    List<BucketHits> countHitsByHour(String uri, LocalDateTime start, LocalDateTime end);
+
+    @Query(value = "SELECT date_trunc('day', s.timestamp) AS bucket, count(*) AS hits " +
+            "FROM stats s " +
+            "WHERE s.uri = :uri " +
+            "AND s.timestamp BETWEEN :start AND :end " +
+            "GROUP BY date_trunc('day', s.timestamp) " +
+            "ORDER BY bucket", nativeQuery = true)
+    List<BucketHits> countHitsByDay(String uri, LocalDateTime start, LocalDateTime end);
 }
@@ -0,0 +1,110 @@
+package ru.practicum.stats_server.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Кольцо поминутных скетчей Space-Saving. Сумма счетчиков всех скетчей кольца ведется при записи: хит добавляется
+ * в нее вместе со скетчем, вытесненный из скетча ключ и устаревший скетч вычитаются. Топ за все окно кольца
+ * выбирается из этой суммы ограниченной кучей, без слияния скетчей; для окна короче кольца сливаются только
+ * скетчи, попавшие в окно.
+ */
+class SlidingWindowTopK {
+    private final SpaceSaving[] buckets;
+    private final long[] bucketMinutes;
+    private final int capacity;
+    private final Map<String, Long> totals = new HashMap<>();
+
+    SlidingWindowTopK(int windowMinutes, int capacity) {
+        this.buckets = new SpaceSaving[windowMinutes];
+        this.bucketMinutes = new long[windowMinutes];
+        this.capacity = capacity;
+    }
+
+    synchronized void record(String uri, long minute) {
+        int i = (int) (minute % buckets.length);
+        if (buckets[i] == null || bucketMinutes[i] < minute) {
+            expire(i);
+            buckets[i] = new SpaceSaving(capacity);
+            bucketMinutes[i] = minute;
+        } else if (bucketMinutes[i] > minute) {
+            return;
+        }
+        Long before = buckets[i].counts().get(uri);
+        String evicted = buckets[i].add(uri);
+        long after = buckets[i].counts().get(uri);
+        if (evicted != null) {
+            subtract(evicted, after - 1);
+        }
+        totals.merge(uri, before == null ? after : after - before, Long::sum);
+    }
+
+    /**
+     * @param nowMinute текущая минута
+     * @param window    размер окна в минутах, не больше размера кольца
+     * @param uriPrefix учитывать только адреса с этим префиксом, null - все адреса
+     * @param k         размер топа
+     * @return Map адрес -> количество просмотров по убыванию
+     */
+    synchronized Map<String, Long> top(long nowMinute, int window, String uriPrefix, int k) {
+        long fromMinute = nowMinute - Math.min(window, buckets.length);
+        boolean wholeRing = window >= buckets.length;
+        for (int i = 0; i < buckets.length; i++) {
+            if (buckets[i] == null) {
+                continue;
+            }
+            if (bucketMinutes[i] <= nowMinute - buckets.length) {
+                expire(i);
+            } else if (bucketMinutes[i] > nowMinute) {
+                wholeRing = false;
+            }
+        }
+        if (wholeRing) {
+            return top(totals, uriPrefix, k);
+        }
+        Map<String, Long> merged = new HashMap<>();
+        for (int i = 0; i < buckets.length; i++) {
+            if (buckets[i] == null || bucketMinutes[i] <= fromMinute || bucketMinutes[i] > nowMinute) {
+                continue;
+            }
+            buckets[i].counts().forEach((uri, count) -> merged.merge(uri, count, Long::sum));
+        }
+        return top(merged, uriPrefix, k);
+    }
+
+    private void expire(int i) {
+        if (buckets[i] != null) {
+            buckets[i].counts().forEach(this::subtract);
+            buckets[i] = null;
+        }
+    }
+
+    private void subtract(String uri, long count) {
+        totals.computeIfPresent(uri, (key, total) -> total == count ? null : total - count);
+    }
+
+    private static Map<String, Long> top(Map<String, Long> counts, String uriPrefix, int k) {
+        PriorityQueue<Map.Entry<String, Long>> heap = new PriorityQueue<>(k + 1, Map.Entry.comparingByValue());
+        for (Map.Entry<String, Long> entry : counts.entrySet()) {
+            if (uriPrefix != null && !entry.getKey().startsWith(uriPrefix)) {
+                continue;
+            }
+            if (heap.size() < k) {
+                heap.offer(entry);
+            } else if (entry.getValue() > heap.peek().getValue()) {
+                heap.poll();
+                heap.offer(entry);
+            }
+        }
+        List<Map.Entry<String, Long>> top = new ArrayList<>(heap);
+        top.sort(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()));
+        Map<String, Long> result = new LinkedHashMap<>();
+        top.forEach(entry -> result.put(entry.getKey(), entry.getValue()));
+        return result;
+    }
+}
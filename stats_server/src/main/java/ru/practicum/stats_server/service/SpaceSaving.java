@@ -0,0 +1,59 @@
+package ru.practicum.stats_server.service;
+
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Скетч Space-Saving: хранит не больше capacity ключей, при переполнении вытесняет ключ с минимальным счетчиком,
+ * а новый ключ наследует его счетчик. Оценка счетчика завышена не больше чем на минимальный счетчик скетча.
+ * Не потокобезопасен.
+ */
+class SpaceSaving {
+    private final int capacity;
+    private final Map<String, Long> counts;
+    private final TreeMap<Long, Set<String>> keysByCount = new TreeMap<>();
+
+    SpaceSaving(int capacity) {
+        this.capacity = capacity;
+        this.counts = new HashMap<>(capacity * 2);
+    }
+
+    /**
+     * @return вытесненный ключ или null; его счетчик равен новому счетчику key без единицы
+     */
+    String add(String key) {
+        Long count = counts.get(key);
+        String evicted = null;
+        if (count == null) {
+            if (counts.size() < capacity) {
+                count = 0L;
+            } else {
+                evicted = keysByCount.firstEntry().getValue().iterator().next();
+                count = counts.get(evicted);
+                unlink(evicted, count);
+                counts.remove(evicted);
+            }
+        } else {
+            unlink(key, count);
+        }
+        long newCount = count + 1;
+        counts.put(key, newCount);
+        keysByCount.computeIfAbsent(newCount, c -> new LinkedHashSet<>()).add(key);
+        return evicted;
+    }
+
+    Map<String, Long> counts() {
+        return counts;
+    }
+
+    private void unlink(String key, long count) {
+        Set<String> keys = keysByCount.get(count);
+        keys.remove(key);
+        if (keys.isEmpty()) {
+            keysByCount.remove(count);
+        }
+    }
+}
@@ -1,12 +1,27 @@
 package ru.practicum.stats_server.service;
 
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+import ru.practicum.stats_server.dto.AggregatedViewStats;
+import ru.practicum.stats_server.dto.AppHits;
 import ru.practicum.stats_server.dto.EndpointHitDto;
 import ru.practicum.stats_server.dto.EndpointHitMapper;
+import ru.practicum.stats_server.dto.SeriesPointDto;
+import ru.practicum.stats_server.dto.StatsQueryDto;
+import ru.practicum.stats_server.dto.TimeBucket;
+import ru.practicum.stats_server.dto.UriHits;
 import ru.practicum.stats_server.dto.ViewStats;
+import ru.practicum.stats_server.ingest.HitFilter;
+import ru.practicum.stats_server.ingest.HitLog;
+import ru.practicum.stats_server.model.EndpointHit;
 import ru.practicum.stats_server.repository.HitRepository;
 
 import java.io.UnsupportedEncodingException;
@@ -14,19 +29,67 @@ import java.net.URLDecoder;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 @Transactional
-@RequiredArgsConstructor
 public class StatisticService {
+    /**
+     * Наибольшее число интервалов в ответе GET /stats/series: сутки поминутно, два месяца по часам
+     */
+    public static final int MAX_SERIES_BUCKETS = 1440;
+
     private final DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
     private final HitRepository repository;
+    private final TrendingService trendingService;
+    private final HitFilter hitFilter;
+    private final ObjectProvider<HitLog> hitLogProvider;
+    private final long ackTimeoutMs;
+    private final MeterRegistry meterRegistry;
+
+    public StatisticService(HitRepository repository, TrendingService trendingService, HitFilter hitFilter,
+                            ObjectProvider<HitLog> hitLogProvider, MeterRegistry meterRegistry,
+                            @Value("${stats.ingest.wal.ack-timeout-ms:5000}") long ackTimeoutMs) {
+        this.repository = repository;
+        this.trendingService = trendingService;
+        this.hitFilter = hitFilter;
+        this.hitLogProvider = hitLogProvider;
+        this.meterRegistry = meterRegistry;
+        this.ackTimeoutMs = ackTimeoutMs;
+    }
 
-    public List<ViewStats> getViewStats(String start, String end, List<String> uris, Boolean unique)
-            throws UnsupportedEncodingException {
-        log.info(":::::декодирование start={}, end={}", start, end);
+    /**
+     * Возвращает статистику по списку адресов или по префиксу адреса
+     *
+     * @param uris      точные адреса, не используются если задан uriPrefix
+     * @param uriPrefix префикс адреса, например /events/
+     * @param aggregate свернуть статистику по префиксу в одну запись на приложение
+     * @return List статистики
+     */
+    @Transactional(readOnly = true)
+    public List<ViewStats> getViewStats(String start, String end, List<String> uris, String uriPrefix,
+                                        Boolean unique, Boolean aggregate) throws UnsupportedEncodingException {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            return readViewStats(start, end, uris, uriPrefix, unique, aggregate);
+        } finally {
+            sample.stop(queryTimer("stats"));
+        }
+    }
+
+    private List<ViewStats> readViewStats(String start, String end, List<String> uris, String uriPrefix,
+                                          Boolean unique, Boolean aggregate) throws UnsupportedEncodingException {
+        log.debug(":::::декодирование start={}, end={}", start, end);
         LocalDateTime startTime;
         LocalDateTime endTime;
 
@@ -34,15 +97,201 @@ public class StatisticService {
         String decodeEnd = URLDecoder.decode(end, StandardCharsets.UTF_8.toString());
         startTime = LocalDateTime.parse(decodeStart, formatter);
         endTime = LocalDateTime.parse(decodeEnd, formatter);
-        log.info(":::::декодирование прошло успешно {} -> {}", start, decodeStart);
+        log.debug(":::::декодирование прошло успешно {} -> {}", start, decodeStart);
 
+        if (uriPrefix != null) {
+            return getViewStatsByUriPrefix(startTime, endTime, uriPrefix, unique, aggregate);
+        }
+        if (uris == null || uris.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "нужно указать uris или uriPrefix");
+        }
         if (unique) {
             return repository.getViewStatsListByParamsUnique(startTime, endTime, uris);
         }
         return repository.getViewStatsListByParams(startTime, endTime, uris);
     }
 
+    /**
+     * Возвращает количество просмотров для всех адресов из запроса одной выборкой
+     *
+     * @param query период, список адресов или префикс адреса, признак уникальности по ip
+     * @return Map адрес -> количество просмотров, адреса без просмотров не попадают в ответ
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Long> queryViewStats(StatsQueryDto query) {
+        return queryTimer("query").record(() -> countViewStats(query));
+    }
+
+    private Map<String, Long> countViewStats(StatsQueryDto query) {
+        LocalDateTime startTime = LocalDateTime.parse(query.getStart(), formatter);
+        LocalDateTime endTime = LocalDateTime.parse(query.getEnd(), formatter);
+        List<UriHits> hits;
+        if (query.getUriPrefix() != null) {
+            String prefix = HitRepository.escapeLike(query.getUriPrefix());
+            hits = query.isUnique()
+                    ? repository.countUniqueHitsByUriPrefix(startTime, endTime, prefix)
+                    : repository.countHitsByUriPrefix(startTime, endTime, prefix);
+        } else if (query.getUris() != null && !query.getUris().isEmpty()) {
+            hits = query.isUnique()
+                    ? repository.countUniqueHitsByUris(startTime, endTime, query.getUris())
+                    : repository.countHitsByUris(startTime, endTime, query.getUris());
+        } else {
+            return Collections.emptyMap();
+        }
+        Map<String, Long> result = new HashMap<>(hits.size() * 2);
+        for (UriHits uriHits : hits) {
+            result.put(uriHits.getUri(), uriHits.getHits());
+        }
+        return result;
+    }
+
+    private List<ViewStats> getViewStatsByUriPrefix(LocalDateTime start, LocalDateTime end, String uriPrefix,
+                                                    boolean unique, boolean aggregate) {
+        String prefix = HitRepository.escapeLike(uriPrefix);
+        if (!aggregate) {
+            return unique
+                    ? repository.getViewStatsListByUriPrefixUnique(start, end, prefix)
+                    : repository.getViewStatsListByUriPrefix(start, end, prefix);
+        }
+        List<AppHits> appHits = unique
+                ? repository.countUniqueHitsByAppAndUriPrefix(start, end, prefix)
+                : repository.countHitsByAppAndUriPrefix(start, end, prefix);
+        return appHits.stream()
+                .map(hits -> new AggregatedViewStats(hits.getApp(), uriPrefix + "*", (int) hits.getHits()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Возвращает количество просмотров адреса по интервалам. Интервалы без просмотров в ответ не попадают.
+     * Промежуток [start, end] не должен содержать больше {@link #MAX_SERIES_BUCKETS} интервалов.
+     *
+     * @param bucket размер интервала: minute, hour или day
+     * @return List интервалов по возрастанию времени
+     */
+    @Transactional(readOnly = true)
+    public List<SeriesPointDto> getViewStatsSeries(String uri, String start, String end, String bucket) {
+        TimeBucket timeBucket;
+        try {
+            timeBucket = TimeBucket.valueOf(bucket.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "неизвестный интервал " + bucket);
+        }
+        LocalDateTime startTime = LocalDateTime.parse(start, formatter);
+        LocalDateTime endTime = LocalDateTime.parse(end, formatter);
+        if (startTime.isAfter(endTime)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "start позже end");
+        }
+        if (timeBucket.getUnit().between(startTime, endTime) >= MAX_SERIES_BUCKETS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    String.format("больше %d интервалов %s в промежутке", MAX_SERIES_BUCKETS, bucket));
+        }
+        return queryTimer("series").record(() -> repository.countHitsByBucket(uri, startTime, endTime, timeBucket)
+                .stream()
+                .map(hits -> new SeriesPointDto(hits.getBucket().format(formatter), hits.getHits()))
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * Сохраняет хит. В режиме stats.ingest.mode=wal хит пишется в журнал и подтверждается после fsync,
+     * в таблицу он попадает позже, поэтому id в ответе не заполнен. Хит, отброшенный {@link HitFilter},
+     * не сохраняется и тоже возвращается без id. Транзакция здесь не открывается,
+     * чтобы ожидание fsync не держало соединение с базой.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public EndpointHitDto addHit(EndpointHitDto hit) {
-        return EndpointHitMapper.toEndpointHitDto(repository.save(EndpointHitMapper.toEndpointHit(hit)));
+        Timer.Sample sample = Timer.start(meterRegistry);
+        HitLog hitLog = hitLogProvider.getIfAvailable();
+        String result = "stored";
+        try {
+            EndpointHit endpointHit = EndpointHitMapper.toEndpointHit(hit);
+            if (!hitFilter.accept(hit, endpointHit)) {
+                log.debug("StatisticService: хит {} отброшен фильтром", hit);
+                result = "filtered";
+                return EndpointHitMapper.toEndpointHitDto(endpointHit);
+            }
+            try {
+                if (hitLog == null) {
+                    endpointHit = repository.save(endpointHit);
+                } else {
+                    appendToLog(hitLog, endpointHit);
+                }
+            } catch (RuntimeException e) {
+                hitFilter.release(endpointHit);
+                throw e;
+            }
+            trendingService.record(endpointHit.getApp(), endpointHit.getUri(), endpointHit.getTimestamp());
+            return EndpointHitMapper.toEndpointHitDto(endpointHit);
+        } catch (RuntimeException e) {
+            result = "error";
+            throw e;
+        } finally {
+            sample.stop(ingestTimer(hitLog == null ? "db" : "wal", result));
+        }
+    }
+
+    /**
+     * Неблокирующий прием хита для реактивного контроллера. В режиме wal хит ставится в очередь журнала без
+     * ожидания места, future завершается после fsync; заполненная очередь дает 503 сразу. Без журнала
+     * сохранение в базу выполняется на executor.
+     *
+     * @param executor пул, на котором выполняется сохранение в базу или завершение после fsync,
+     *                 чтобы не занимать поток писателя журнала
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CompletableFuture<EndpointHitDto> addHitAsync(EndpointHitDto hit, Executor executor) {
+        HitLog hitLog = hitLogProvider.getIfAvailable();
+        if (hitLog == null) {
+            return CompletableFuture.supplyAsync(() -> addHit(hit), executor);
+        }
+        Timer.Sample sample = Timer.start(meterRegistry);
+        EndpointHit endpointHit = EndpointHitMapper.toEndpointHit(hit);
+        if (!hitFilter.accept(hit, endpointHit)) {
+            log.debug("StatisticService: хит {} отброшен фильтром", hit);
+            sample.stop(ingestTimer("wal", "filtered"));
+            return CompletableFuture.completedFuture(EndpointHitMapper.toEndpointHitDto(endpointHit));
+        }
+        return hitLog.tryAppend(endpointHit).handleAsync((ignored, e) -> {
+            if (e != null) {
+                hitFilter.release(endpointHit);
+                sample.stop(ingestTimer("wal", "error"));
+                log.error("StatisticService: хит не записан в журнал", e);
+                throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "хит не записан в журнал");
+            }
+            trendingService.record(endpointHit.getApp(), endpointHit.getUri(), endpointHit.getTimestamp());
+            sample.stop(ingestTimer("wal", "stored"));
+            return EndpointHitMapper.toEndpointHitDto(endpointHit);
+        }, executor);
+    }
+
+    private Timer ingestTimer(String mode, String result) {
+        return Timer.builder("stats.ingest")
+                .description("Прием одного хита, включая ожидание fsync в режиме wal")
+                .tag("mode", mode)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private Timer queryTimer(String operation) {
+        return Timer.builder("stats.query")
+                .description("Выполнение запроса статистики")
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Таймаут подтверждения покрывает и ожидание места в очереди журнала, и ожидание fsync
+     */
+    private void appendToLog(HitLog hitLog, EndpointHit endpointHit) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(ackTimeoutMs);
+        try {
+            hitLog.append(endpointHit, ackTimeoutMs, TimeUnit.MILLISECONDS)
+                    .get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "прием хита прерван");
+        } catch (ExecutionException | TimeoutException e) {
+            log.error("StatisticService: хит не записан в журнал", e);
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "хит не записан в журнал");
+        }
     }
 }
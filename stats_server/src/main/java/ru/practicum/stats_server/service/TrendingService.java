@@ -0,0 +1,69 @@
+package ru.practicum.stats_server.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Топ самых просматриваемых адресов за последние минуты. Счетчики обновляются при приеме хита
+ * и живут только в памяти, после перезапуска топ набирается заново.
+ */
+@Slf4j
+@Service
+public class TrendingService {
+    /**
+     * Наибольший размер топа: с запасом на перезапрос основного сервера, который отбрасывает неопубликованные события
+     */
+    public static final int MAX_K = 1000;
+
+    private final Map<String, SlidingWindowTopK> trackers = new ConcurrentHashMap<>();
+    private final int windowMinutes;
+    private final int capacity;
+
+    public TrendingService(@Value("${stats.trending.window-minutes:60}") int windowMinutes,
+                           @Value("${stats.trending.capacity:1000}") int capacity) {
+        this.windowMinutes = windowMinutes;
+        this.capacity = capacity;
+    }
+
+    public void record(String app, String uri, LocalDateTime timestamp) {
+        trackers.computeIfAbsent(app, a -> new SlidingWindowTopK(windowMinutes, capacity))
+                .record(uri, toMinute(timestamp));
+    }
+
+    /**
+     * @param app       приложение
+     * @param window    окно в минутах, от 1 до stats.trending.window-minutes
+     * @param uriPrefix префикс адреса, null - все адреса
+     * @param k         размер топа, от 1 до {@value #MAX_K}
+     * @return Map адрес -> количество просмотров по убыванию
+     */
+    public Map<String, Long> top(String app, int window, String uriPrefix, int k) {
+        if (k < 1 || k > MAX_K) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    String.format("k должно быть от 1 до %d", MAX_K));
+        }
+        if (window < 1 || window > windowMinutes) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    String.format("window должно быть от 1 до %d минут", windowMinutes));
+        }
+        SlidingWindowTopK tracker = trackers.get(app);
+        if (tracker == null) {
+            return Collections.emptyMap();
+        }
+        log.debug("TrendingService: топ-{} адресов приложения {} за {} мин., uriPrefix={}", k, app, window, uriPrefix);
+        return tracker.top(toMinute(LocalDateTime.now()), window, uriPrefix, k);
+    }
+
+    private long toMinute(LocalDateTime timestamp) {
+        return timestamp.toEpochSecond(ZoneOffset.UTC) / 60;
+    }
+}
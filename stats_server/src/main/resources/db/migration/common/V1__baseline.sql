@@ -1,4 +1,5 @@
-drop table if exists stats;
+-- Таблицы сервера статистики из бывшего schema.sql. На базе, созданной до Flyway, эта версия
+-- записывается как baseline без выполнения.
 
 CREATE TABLE IF NOT EXISTS stats (
                                       id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
@@ -0,0 +1,9 @@
+-- Загруженные сегменты журнала хитов (stats.ingest.mode=wal): имя сегмента пишется в одной транзакции с его
+-- хитами, поэтому повторная загрузка после падения пропускается. Отдельной версией, а не в V1: на базах,
+-- созданных из schema.sql, V1 записан как baseline и не выполнялся.
+
+CREATE TABLE IF NOT EXISTS stats_loaded_segments (
+                                      name VARCHAR(100) NOT NULL,
+                                      loaded_at TIMESTAMP NOT NULL,
+                                      CONSTRAINT pk_stats_loaded_segments PRIMARY KEY (name)
+);
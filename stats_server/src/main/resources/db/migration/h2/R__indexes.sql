@@ -0,0 +1,2 @@
+-- Аналог postgresql/R__indexes.sql, в H2 нет varchar_pattern_ops и CONCURRENTLY
+CREATE INDEX IF NOT EXISTS idx_stats_uri_prefix_timestamp ON stats (uri, timestamp);
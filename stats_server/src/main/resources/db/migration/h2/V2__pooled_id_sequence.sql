@@ -0,0 +1,2 @@
+-- Отдельная последовательность для EndpointHit: у identity-колонки в H2 нет имени, на которое можно сослаться
+CREATE SEQUENCE IF NOT EXISTS stats_id_seq START WITH 1 INCREMENT BY 50;
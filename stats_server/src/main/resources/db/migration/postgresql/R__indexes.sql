@@ -0,0 +1,4 @@
+-- Повторяемая миграция: выполняется заново при изменении файла. CONCURRENTLY не блокирует прием хитов,
+-- такие команды Flyway выполняет вне транзакции, поэтому других команд в файле быть не должно.
+-- varchar_pattern_ops позволяет использовать индекс для запросов uri LIKE 'префикс%' при любой локали базы
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_stats_uri_prefix_timestamp ON stats (uri varchar_pattern_ops, timestamp);
@@ -0,0 +1,3 @@
+-- EndpointHit берет id блоками по 50 из последовательности identity-колонки. COPY из журнала по-прежнему
+-- получает id через identity, с шагом 50 такие id не попадают в выданные блоки.
+ALTER TABLE stats ALTER COLUMN id SET INCREMENT BY 50;
@@ -0,0 +1,130 @@
+package ru.practicum.stats_server.controller;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import ru.practicum.stats_server.dto.EndpointHitDto;
+import ru.practicum.stats_server.dto.StatsQueryDto;
+import ru.practicum.stats_server.ingest.HitLog;
+import ru.practicum.stats_server.model.EndpointHit;
+import ru.practicum.stats_server.repository.HitRepository;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Профиль reactive: согласование JSON/CBOR, 503 при заполненной очереди журнала и повтор отклоненного хита
+ * при включенном фильтре. Журнал подменен моком, чтобы заполненную очередь не приходилось создавать нагрузкой
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "stats.filter.enabled=true")
+@ActiveProfiles({"test", "reactive"})
+class ReactiveStatisticControllerTest {
+    private static final String APP = "reactive-test";
+    private static final LocalDateTime T0 = LocalDateTime.of(2022, 9, 6, 10, 0, 0);
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    @Autowired
+    WebTestClient webTestClient;
+    @Autowired
+    HitRepository repository;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+    @MockBean
+    HitLog hitLog;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM stats WHERE app = ?", APP);
+    }
+
+    @Test
+    void queryAnswersInJsonByDefaultAndInCborOnRequest() throws Exception {
+        repository.saveAll(Arrays.asList(hit("10.0.0.1"), hit("10.0.0.2")));
+        StatsQueryDto query = StatsQueryDto.builder()
+                .start(T0.format(FORMATTER))
+                .end(T0.plusDays(1).format(FORMATTER))
+                .uriPrefix("/events/")
+                .build();
+
+        webTestClient.post().uri("/stats/query")
+                .bodyValue(query)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_JSON)
+                .expectBody().jsonPath("$['/events/1']").isEqualTo(2);
+
+        byte[] body = webTestClient.post().uri("/stats/query")
+                .accept(MediaType.APPLICATION_CBOR)
+                .bodyValue(query)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_CBOR)
+                .expectBody(byte[].class).returnResult().getResponseBody();
+        Map<String, Long> views = new ObjectMapper(new CBORFactory()).readValue(body,
+                new TypeReference<Map<String, Long>>() {
+                });
+        assertEquals(1, views.size());
+        assertEquals(2L, views.get("/events/1"));
+    }
+
+    @Test
+    void rejectedHitCanBeRetriedAndRepeatIsFiltered() {
+        EndpointHitDto hit = EndpointHitDto.builder()
+                .app(APP)
+                .uri("/events/1")
+                .ip("10.0.0.1")
+                .timestamp(T0.format(FORMATTER))
+                .build();
+        CompletableFuture<Void> rejected = new CompletableFuture<>();
+        rejected.completeExceptionally(new RejectedExecutionException("очередь журнала заполнена"));
+        when(hitLog.tryAppend(any())).thenReturn(rejected);
+        webTestClient.post().uri("/hit")
+                .bodyValue(hit)
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+
+        // ключ повтора освобожден после 503, поэтому повтор клиента доходит до журнала
+        when(hitLog.tryAppend(any())).thenReturn(CompletableFuture.completedFuture(null));
+        webTestClient.post().uri("/hit")
+                .bodyValue(hit)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().jsonPath("$.uri").isEqualTo("/events/1");
+        verify(hitLog, times(2)).tryAppend(any());
+
+        webTestClient.post().uri("/hit")
+                .bodyValue(hit)
+                .exchange()
+                .expectStatus().isOk();
+        verify(hitLog, times(2)).tryAppend(any());
+    }
+
+    private static EndpointHit hit(String ip) {
+        return EndpointHit.builder()
+                .app(APP)
+                .uri("/events/1")
+                .ip(ip)
+                .timestamp(T0)
+                .build();
+    }
+}
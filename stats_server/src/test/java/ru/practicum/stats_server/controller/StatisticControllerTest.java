@@ -0,0 +1,230 @@
+package ru.practicum.stats_server.controller;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import ru.practicum.stats_server.dto.EndpointHitDto;
+import ru.practicum.stats_server.dto.StatsQueryDto;
+import ru.practicum.stats_server.model.EndpointHit;
+import ru.practicum.stats_server.repository.HitRepository;
+import ru.practicum.stats_server.service.TrendingService;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.aMapWithSize;
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class StatisticControllerTest {
+    private static final String APP = "controller-test";
+    private static final LocalDateTime T0 = LocalDateTime.of(2022, 9, 6, 10, 0, 0);
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    @Autowired
+    MockMvc mockMvc;
+    @Autowired
+    HitRepository repository;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM stats WHERE app = ?", APP);
+    }
+
+    @Test
+    void seriesGroupsHitsByBucket() throws Exception {
+        List<EndpointHit> hits = new ArrayList<>();
+        hits.add(hit("/events/1", "10.0.0.1", T0.plusSeconds(5)));
+        hits.add(hit("/events/1", "10.0.0.2", T0.plusSeconds(59)));
+        hits.add(hit("/events/1", "10.0.0.1", T0.plusMinutes(1)));
+        hits.add(hit("/events/1", "10.0.0.1", T0.plusMinutes(61)));
+        hits.add(hit("/events/1", "10.0.0.1", T0.plusDays(1)));
+        hits.add(hit("/events/2", "10.0.0.1", T0.plusSeconds(5)));
+        repository.saveAll(hits);
+
+        mockMvc.perform(series("minute", T0, T0.plusHours(2)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(3)))
+                .andExpect(jsonPath("$[0].bucket").value("2022-09-06 10:00:00"))
+                .andExpect(jsonPath("$[0].hits").value(2))
+                .andExpect(jsonPath("$[1].bucket").value("2022-09-06 10:01:00"))
+                .andExpect(jsonPath("$[1].hits").value(1))
+                .andExpect(jsonPath("$[2].bucket").value("2022-09-06 11:01:00"))
+                .andExpect(jsonPath("$[2].hits").value(1));
+        mockMvc.perform(series("hour", T0, T0.plusDays(1)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(3)))
+                .andExpect(jsonPath("$[0].bucket").value("2022-09-06 10:00:00"))
+                .andExpect(jsonPath("$[0].hits").value(3))
+                .andExpect(jsonPath("$[1].bucket").value("2022-09-06 11:00:00"))
+                .andExpect(jsonPath("$[2].bucket").value("2022-09-07 10:00:00"));
+        mockMvc.perform(series("DAY", T0, T0.plusDays(2)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].bucket").value("2022-09-06 00:00:00"))
+                .andExpect(jsonPath("$[0].hits").value(4))
+                .andExpect(jsonPath("$[1].hits").value(1));
+    }
+
+    @Test
+    void seriesRejectsUnknownBucketAndTooManyBuckets() throws Exception {
+        mockMvc.perform(series("week", T0, T0.plusDays(1)))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(series("minute", T0, T0.plusDays(1)))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(series("minute", T0, T0.plusDays(1).minusMinutes(1)))
+                .andExpect(status().isOk());
+        mockMvc.perform(series("hour", T0.plusHours(1), T0))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void queryCountsHitsByUrisAndEscapedPrefix() throws Exception {
+        List<EndpointHit> hits = new ArrayList<>();
+        hits.add(hit("/events/1", "10.0.0.1", T0));
+        hits.add(hit("/events/1", "10.0.0.1", T0.plusMinutes(1)));
+        hits.add(hit("/events/1", "10.0.0.2", T0.plusMinutes(2)));
+        hits.add(hit("/events/2", "10.0.0.1", T0));
+        hits.add(hit("/events_top/1", "10.0.0.1", T0));
+        hits.add(hit("/eventsXtop/1", "10.0.0.1", T0));
+        hits.add(hit("/events/3", "10.0.0.1", T0.plusDays(2)));
+        repository.saveAll(hits);
+
+        StatsQueryDto byUris = query(Arrays.asList("/events/1", "/events/2", "/events/3"), null, false);
+        mockMvc.perform(query(byUris))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", aMapWithSize(2)))
+                .andExpect(jsonPath("$['/events/1']").value(3))
+                .andExpect(jsonPath("$['/events/2']").value(1));
+        byUris.setUnique(true);
+        mockMvc.perform(query(byUris))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$['/events/1']").value(2))
+                .andExpect(jsonPath("$['/events/2']").value(1));
+        mockMvc.perform(query(query(null, "/events/", true)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", aMapWithSize(2)))
+                .andExpect(jsonPath("$['/events/1']").value(2));
+        // _ в префиксе - обычный символ, а не шаблон LIKE
+        mockMvc.perform(query(query(null, "/events_", false)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", aMapWithSize(1)))
+                .andExpect(jsonPath("$['/events_top/1']").value(1));
+        mockMvc.perform(query(query(null, "/events%", false)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", aMapWithSize(0)));
+    }
+
+    @Test
+    void queryAnswersInCborOnRequest() throws Exception {
+        repository.saveAll(Arrays.asList(hit("/events/1", "10.0.0.1", T0), hit("/events/1", "10.0.0.2", T0)));
+
+        byte[] body = mockMvc.perform(query(query(null, "/events/", false)).accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+        Map<String, Long> views = new ObjectMapper(new CBORFactory()).readValue(body,
+                new TypeReference<Map<String, Long>>() {
+                });
+
+        assertEquals(1, views.size());
+        assertEquals(2L, views.get("/events/1"));
+        mockMvc.perform(query(query(null, "/events/", false)))
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    void topRejectsKAndWindowOutOfRange() throws Exception {
+        mockMvc.perform(top(60, 0)).andExpect(status().isBadRequest());
+        mockMvc.perform(top(60, TrendingService.MAX_K + 1)).andExpect(status().isBadRequest());
+        mockMvc.perform(top(0, 10)).andExpect(status().isBadRequest());
+        mockMvc.perform(top(61, 10)).andExpect(status().isBadRequest());
+        mockMvc.perform(top(60, TrendingService.MAX_K)).andExpect(status().isOk());
+    }
+
+    @Test
+    void hitThatDoesNotFitOneLogLineIsRejected() throws Exception {
+        mockMvc.perform(hit(EndpointHitDto.builder().app(APP).uri("/events/1\n/events/2").ip("10.0.0.1")))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(hit(EndpointHitDto.builder().app(APP).uri("/events/1").ip("10.0.0.1\r")))
+                .andExpect(status().isBadRequest());
+        String longUri = "/events/" + String.join("", Collections.nCopies(EndpointHit.URI_LENGTH, "x"));
+        mockMvc.perform(hit(EndpointHitDto.builder().app(APP).uri(longUri).ip("10.0.0.1")))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(hit(EndpointHitDto.builder().app(APP).uri(longUri.substring(0, EndpointHit.URI_LENGTH))
+                        .ip("10.0.0.1")))
+                .andExpect(status().isOk());
+    }
+
+    private MockHttpServletRequestBuilder hit(EndpointHitDto.EndpointHitDtoBuilder hit) throws Exception {
+        return post("/hit")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(hit.timestamp(T0.format(FORMATTER)).build()));
+    }
+
+    private MockHttpServletRequestBuilder query(StatsQueryDto query) throws Exception {
+        return post("/stats/query")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(query));
+    }
+
+    private static StatsQueryDto query(List<String> uris, String uriPrefix, boolean unique) {
+        return StatsQueryDto.builder()
+                .start(T0.format(FORMATTER))
+                .end(T0.plusDays(1).format(FORMATTER))
+                .uris(uris)
+                .uriPrefix(uriPrefix)
+                .unique(unique)
+                .build();
+    }
+
+    private static RequestBuilder top(int window, int k) {
+        return get("/stats/top")
+                .param("app", APP)
+                .param("window", String.valueOf(window))
+                .param("k", String.valueOf(k));
+    }
+
+    private static RequestBuilder series(String bucket, LocalDateTime start, LocalDateTime end) {
+        return get("/stats/series")
+                .param("uri", "/events/1")
+                .param("start", start.format(FORMATTER))
+                .param("end", end.format(FORMATTER))
+                .param("bucket", bucket);
+    }
+
+    private static EndpointHit hit(String uri, String ip, LocalDateTime timestamp) {
+        return EndpointHit.builder()
+                .app(APP)
+                .uri(uri)
+                .ip(ip)
+                .timestamp(timestamp)
+                .build();
+    }
+}
@@ -0,0 +1,91 @@
+package ru.practicum.stats_server.ingest;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.stats_server.dto.EndpointHitDto;
+import ru.practicum.stats_server.model.EndpointHit;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HitFilterTest {
+    private static final LocalDateTime NOW = LocalDateTime.of(2022, 9, 6, 11, 0, 23);
+
+    private SimpleMeterRegistry meterRegistry;
+    private HitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        filter = new HitFilter(meterRegistry, true, 1, 100, Arrays.asList(" Bot ", "crawler", ""),
+                Collections.singleton("10.0.0.66"));
+    }
+
+    @Test
+    void dropsRepeatWithinWindow() {
+        assertTrue(accept("10.0.0.1", "/events/1", null, NOW));
+        assertFalse(accept("10.0.0.1", "/events/1", null, NOW));
+        assertTrue(accept("10.0.0.2", "/events/1", null, NOW));
+        assertTrue(accept("10.0.0.1", "/events/2", null, NOW));
+        assertTrue(accept("10.0.0.1", "/events/1", null, NOW.plusSeconds(1)));
+
+        assertEquals(1, filtered("duplicate"));
+    }
+
+    @Test
+    void releasedHitIsAcceptedAgain() {
+        EndpointHit hit = hit("10.0.0.1", "/events/1", NOW);
+        assertTrue(filter.accept(dto(null), hit));
+        filter.release(hit);
+
+        assertTrue(accept("10.0.0.1", "/events/1", null, NOW));
+        assertEquals(0, filtered("duplicate"));
+    }
+
+    @Test
+    void dropsBlockedUserAgentsAndIps() {
+        assertFalse(accept("10.0.0.1", "/events/1", "Mozilla/5.0 (compatible; Googlebot/2.1)", NOW));
+        assertFalse(accept("10.0.0.2", "/events/1", "SomeCrawler", NOW));
+        assertFalse(accept("10.0.0.66", "/events/1", "Mozilla/5.0", NOW));
+        assertTrue(accept("10.0.0.3", "/events/1", "Mozilla/5.0", NOW));
+
+        assertEquals(2, filtered("user_agent"));
+        assertEquals(1, filtered("ip"));
+        assertEquals(0, filtered("duplicate"));
+    }
+
+    @Test
+    void disabledFilterAcceptsEverything() {
+        filter = new HitFilter(meterRegistry, false, 1, 100, Collections.singletonList("bot"),
+                Collections.singleton("10.0.0.66"));
+
+        assertTrue(accept("10.0.0.66", "/events/1", "bot", NOW));
+        assertTrue(accept("10.0.0.66", "/events/1", "bot", NOW));
+        assertEquals(0, filtered("duplicate") + filtered("user_agent") + filtered("ip"));
+    }
+
+    private boolean accept(String ip, String uri, String userAgent, LocalDateTime timestamp) {
+        return filter.accept(dto(userAgent), hit(ip, uri, timestamp));
+    }
+
+    private double filtered(String reason) {
+        return meterRegistry.get("stats.hits.filtered").tag("reason", reason).counter().count();
+    }
+
+    private static EndpointHitDto dto(String userAgent) {
+        return EndpointHitDto.builder().userAgent(userAgent).build();
+    }
+
+    private static EndpointHit hit(String ip, String uri, LocalDateTime timestamp) {
+        return EndpointHit.builder()
+                .app("ewm-main-service")
+                .uri(uri)
+                .ip(ip)
+                .timestamp(timestamp)
+                .build();
+    }
+}
@@ -0,0 +1,43 @@
+package ru.practicum.stats_server.ingest;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.stats_server.model.EndpointHit;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HitLogFormatTest {
+    @Test
+    void appendAndParseRoundTrip() {
+        EndpointHit hit = EndpointHit.builder()
+                .app("ewm-main-service")
+                .uri("/events?text=\"джаз, блюз\",a=\"\"")
+                .ip("10.0.0.1")
+                .timestamp(LocalDateTime.of(2022, 9, 6, 11, 0, 23))
+                .build();
+        StringBuilder line = new StringBuilder();
+        HitLogFormat.append(line, hit);
+
+        assertEquals('\n', line.charAt(line.length() - 1));
+        EndpointHit parsed = HitLogFormat.parse(line.substring(0, line.length() - 1));
+        assertEquals(hit.getApp(), parsed.getApp());
+        assertEquals(hit.getUri(), parsed.getUri());
+        assertEquals(hit.getIp(), parsed.getIp());
+        assertEquals(hit.getTimestamp(), parsed.getTimestamp());
+        assertThrows(IllegalArgumentException.class, () -> HitLogFormat.parse("\"ewm\",\"/events/1"));
+    }
+
+    @Test
+    void recordsAreSplitOutsideQuotesOnly() {
+        String content = "\"ewm\",\"/a\nb\",\"10.0.0.1\",2022-09-06 11:00:23\n\n"
+                + "\"ewm\",\"/c\",\"10.0.0.1\",2022-09-06 11:00:23\n";
+
+        assertEquals(2, HitLogFormat.records(content).size());
+        assertEquals("/a\nb", HitLogFormat.parse(HitLogFormat.records(content).get(0)).getUri());
+        assertThrows(IllegalArgumentException.class, () -> HitLogFormat.parse(
+                "\"ewm\",\"" + String.join("", Collections.nCopies(EndpointHit.URI_LENGTH + 1, "x"))
+                        + "\",\"10.0.0.1\",2022-09-06 11:00:23"));
+    }
+}
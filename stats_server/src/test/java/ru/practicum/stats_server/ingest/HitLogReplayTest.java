@@ -0,0 +1,147 @@
+package ru.practicum.stats_server.ingest;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.stats_server.model.EndpointHit;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Восстановление после падения: открытый сегмент с оборванной последней строкой закрывается при старте,
+ * загружаются ровно подтвержденные хиты и ровно один раз
+ */
+@SpringBootTest
+class HitLogReplayTest {
+    private static final String APP = "replay-test";
+
+    @Autowired
+    DataSource dataSource;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @TempDir
+    Path running;
+    @TempDir
+    Path crashed;
+    @TempDir
+    Path backup;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM stats WHERE app = ?", APP);
+        jdbcTemplate.update("DELETE FROM stats_loaded_segments");
+    }
+
+    @Test
+    void ackedHitsAreLoadedOnceAfterRestart() throws Exception {
+        HitLog beforeCrash = hitLog(running);
+        beforeCrash.start();
+        for (int i = 0; i < 3; i++) {
+            beforeCrash.append(hit("/events/" + i + "?q=\"a,b\""), 5, TimeUnit.SECONDS).get(5, TimeUnit.SECONDS);
+        }
+        // снимок каталога на момент падения: сегмент не закрыт, последняя запись оборвана
+        Path open = copyAll(running, crashed).get(0);
+        assertTrue(open.toString().endsWith(HitLog.OPEN_SUFFIX));
+        Files.write(open, "\"replay-test\",\"/events/torn".getBytes(StandardCharsets.UTF_8),
+                StandardOpenOption.APPEND);
+        beforeCrash.stop();
+
+        HitLog afterRestart = hitLog(crashed);
+        afterRestart.start();
+        HitLogLoader loader = new HitLogLoader(afterRestart, dataSource, transactionManager, 1000);
+        List<Path> sealed = copyAll(crashed, backup);
+        assertEquals(1, sealed.size());
+        assertTrue(sealed.get(0).toString().endsWith(HitLog.SEALED_SUFFIX));
+
+        loader.loadSealedSegments();
+        assertEquals(3, loadedHits());
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT count(*) FROM stats WHERE uri = ?", Integer.class,
+                "/events/1?q=\"a,b\""));
+
+        // сегмент загружен, но не удален до падения: повтор его пропускает
+        copyAll(backup, crashed);
+        loader.loadSealedSegments();
+        assertEquals(3, loadedHits());
+        assertTrue(files(crashed).isEmpty());
+
+        // битые записи пропускаются, остальные хиты того же сегмента загружаются
+        StringBuilder lines = new StringBuilder("not a hit\n");
+        HitLogFormat.append(lines, hit("/events/next"));
+        HitLogFormat.append(lines, hit("/events/" + String.join("", Collections.nCopies(EndpointHit.URI_LENGTH, "x"))));
+        HitLogFormat.append(lines, hit("/events/multi\nline"));
+        Path next = crashed.resolve("hits-0000000000000-000001" + HitLog.SEALED_SUFFIX);
+        Files.write(next, lines.toString().getBytes(StandardCharsets.UTF_8));
+        loader.loadSealedSegments();
+        assertEquals(5, loadedHits());
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT count(*) FROM stats WHERE uri = ?", Integer.class,
+                "/events/multi\nline"));
+        assertTrue(files(crashed).isEmpty());
+        afterRestart.stop();
+    }
+
+    @Test
+    void appendFailsWhenQueueStaysFull() throws Exception {
+        // писатель не запущен, поэтому место в очереди не освобождается
+        HitLog stalled = new HitLog(new SimpleMeterRegistry(), running.toString(), 1 << 20, 64, 2_000, 1);
+        assertFalse(stalled.append(hit("/events/1"), 10, TimeUnit.MILLISECONDS).isDone());
+
+        ExecutionException e = assertThrows(ExecutionException.class,
+                () -> stalled.append(hit("/events/2"), 10, TimeUnit.MILLISECONDS).get(1, TimeUnit.SECONDS));
+        assertTrue(e.getCause() instanceof RejectedExecutionException);
+    }
+
+    private HitLog hitLog(Path dir) {
+        // интервал закрытия больше времени теста до снимка, но stop ждет не дольше него
+        return new HitLog(new SimpleMeterRegistry(), dir.toString(), 1 << 20, 64, 2_000, 1024);
+    }
+
+    private EndpointHit hit(String uri) {
+        return EndpointHit.builder()
+                .app(APP)
+                .uri(uri)
+                .ip("10.0.0.1")
+                .timestamp(LocalDateTime.of(2022, 9, 6, 11, 0, 23))
+                .build();
+    }
+
+    private int loadedHits() {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM stats WHERE app = ?", Integer.class, APP);
+    }
+
+    private static List<Path> copyAll(Path from, Path to) throws Exception {
+        List<Path> copies = new ArrayList<>();
+        for (Path file : files(from)) {
+            copies.add(Files.copy(file, to.resolve(file.getFileName())));
+        }
+        return copies;
+    }
+
+    private static List<Path> files(Path dir) throws Exception {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.sorted().collect(Collectors.toList());
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package ru.practicum.stats_server.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlidingWindowTopKTest {
+    @Test
+    void topOfWholeWindowIsOrderedAndFilteredByPrefix() {
+        SlidingWindowTopK topK = new SlidingWindowTopK(5, 100);
+        record(topK, "/events/1", 10, 3);
+        record(topK, "/events/2", 11, 5);
+        record(topK, "/compilations/1", 12, 7);
+        record(topK, "/events/3", 12, 1);
+
+        assertEquals("{/events/2=5, /events/1=3}", topK.top(12, 5, "/events/", 2).toString());
+        assertEquals("{/compilations/1=7}", topK.top(12, 5, null, 1).toString());
+        assertEquals("{/compilations/1=7, /events/3=1}", topK.top(12, 1, null, 5).toString());
+    }
+
+    @Test
+    void oldMinutesLeaveTheWindow() {
+        SlidingWindowTopK topK = new SlidingWindowTopK(3, 100);
+        record(topK, "/events/1", 100, 5);
+        record(topK, "/events/2", 101, 2);
+
+        assertEquals("{/events/1=5, /events/2=2}", topK.top(102, 3, null, 10).toString());
+        assertEquals("{/events/2=2}", topK.top(103, 3, null, 10).toString());
+        // минута 104 занимает ячейку кольца минуты 101, ее счетчики вычитаются из суммы
+        record(topK, "/events/2", 104, 1);
+        assertEquals("{/events/2=1}", topK.top(104, 3, null, 10).toString());
+        assertTrue(topK.top(107, 3, null, 10).isEmpty());
+        // хит из прошлого после поворота кольца не учитывается
+        record(topK, "/events/1", 104 - 3, 1);
+        assertTrue(topK.top(107, 3, null, 10).isEmpty());
+    }
+
+    @Test
+    void incrementalTotalsMatchMergeOfBuckets() {
+        int ring = 10;
+        SlidingWindowTopK topK = new SlidingWindowTopK(ring, 8);
+        SpaceSaving[] buckets = new SpaceSaving[ring];
+        long[] bucketMinutes = new long[ring];
+        Random random = new Random(7);
+        long minute = 1_000;
+        for (int i = 0; i < 20_000; i++) {
+            if (random.nextInt(200) == 0) {
+                minute += 1 + random.nextInt(3);
+            }
+            String uri = "/events/" + (random.nextInt(4) == 0 ? random.nextInt(3) : random.nextInt(50));
+            topK.record(uri, minute);
+            int slot = (int) (minute % ring);
+            if (buckets[slot] == null || bucketMinutes[slot] < minute) {
+                buckets[slot] = new SpaceSaving(8);
+                bucketMinutes[slot] = minute;
+            }
+            buckets[slot].add(uri);
+            if (i % 1000 == 999) {
+                assertEquals(merge(buckets, bucketMinutes, minute), counts(topK.top(minute, ring, null, 1000)));
+            }
+        }
+    }
+
+    private static void record(SlidingWindowTopK topK, String uri, long minute, int times) {
+        for (int i = 0; i < times; i++) {
+            topK.record(uri, minute);
+        }
+    }
+
+    private static Map<String, Long> merge(SpaceSaving[] buckets, long[] bucketMinutes, long nowMinute) {
+        Map<String, Long> merged = new HashMap<>();
+        for (int i = 0; i < buckets.length; i++) {
+            if (buckets[i] != null && bucketMinutes[i] > nowMinute - buckets.length) {
+                buckets[i].counts().forEach((uri, count) -> merged.merge(uri, count, Long::sum));
+            }
+        }
+        return merged;
+    }
+
+    private static Map<String, Long> counts(Map<String, Long> top) {
+        return new HashMap<>(top);
+    }
+}
@@ -0,0 +1,65 @@
+package ru.practicum.stats_server.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpaceSavingTest {
+    @Test
+    void keepsExactCountsBelowCapacity() {
+        SpaceSaving sketch = new SpaceSaving(3);
+        sketch.add("/events/1");
+        sketch.add("/events/2");
+        sketch.add("/events/1");
+
+        assertEquals(2, sketch.counts().size());
+        assertEquals(2L, sketch.counts().get("/events/1"));
+        assertEquals(1L, sketch.counts().get("/events/2"));
+    }
+
+    @Test
+    void evictsMinimumAndInheritsItsCount() {
+        SpaceSaving sketch = new SpaceSaving(2);
+        sketch.add("/events/1");
+        sketch.add("/events/1");
+        sketch.add("/events/2");
+
+        assertEquals("/events/2", sketch.add("/events/3"));
+        assertEquals(2, sketch.counts().size());
+        assertEquals(2L, sketch.counts().get("/events/1"));
+        assertEquals(2L, sketch.counts().get("/events/3"));
+        assertNull(sketch.add("/events/1"));
+    }
+
+    @Test
+    void overestimateIsBoundedByMinimumCount() {
+        int capacity = 20;
+        int hits = 20_000;
+        SpaceSaving sketch = new SpaceSaving(capacity);
+        Map<String, Long> exact = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < hits; i++) {
+            // пять горячих адресов получают половину хитов, остальные размазаны по тысяче адресов
+            String uri = random.nextBoolean() ? "/events/hot" + random.nextInt(5) : "/events/" + random.nextInt(1000);
+            exact.merge(uri, 1L, Long::sum);
+            sketch.add(uri);
+        }
+
+        Map<String, Long> counts = sketch.counts();
+        assertEquals(capacity, counts.size());
+        assertEquals(hits, counts.values().stream().mapToLong(Long::longValue).sum());
+        long min = counts.values().stream().mapToLong(Long::longValue).min().getAsLong();
+        assertTrue(min <= hits / capacity);
+        counts.forEach((uri, count) -> {
+            long actual = exact.get(uri);
+            assertTrue(count >= actual && count <= actual + min, uri + ": " + count + " vs " + actual);
+        });
+        for (int i = 0; i < 5; i++) {
+            assertTrue(counts.containsKey("/events/hot" + i));
+        }
+    }
+}